@@ -0,0 +1,410 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class AirportBenchmark {
+    // JMH can't generate benchmarks for classes in the default package, so this is a small JMH-style harness
+    // instead: warmup + measured iterations, throughput in ops/s, results written as JMH-shaped JSON.
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("bench.warmup", 3);
+    private static final int MEASURE_ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long ITERATION_MS = Long.getLong("bench.iterationMs", 1000);
+    private static final String FILTER = System.getProperty("bench.filter", ""); // Substring of benchmark name
+    private static final String OUTPUT = System.getProperty("bench.out", "benchmark-results.json");
+
+    private static final int[] QUEUE_SIZES = { 10, 100, 1000, 10000, 100000 };
+    private static final int[] THREAD_COUNTS = { 1, 4, 16, 64 };
+    private static final int[] CABIN_SIZES = { 150, 300, 500 };
+
+    private static final PrintStream CONSOLE = System.out;
+    private static volatile Object blackhole; // Keeps the JIT from throwing results away
+
+    private final List<String> results = new ArrayList<>();
+
+    interface Operation {
+        boolean run(); // One op, returns false if it didn't count (e.g. lost a tryAcquire)
+    }
+
+    interface Iteration {
+        double run() throws InterruptedException; // One whole iteration, returns its score
+    }
+
+    // METHODS
+    private static void quietly(Runnable body) { // The actors log a lot, that isn't what we're measuring
+        EventLog.Level level = EventLog.getLevel();
+        EventLog.setLevel(EventLog.Level.OFF);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            body.run();
+        } finally {
+            System.setOut(CONSOLE);
+            EventLog.setLevel(level);
+        }
+    }
+
+    private static double timedOps(int threads, Operation op) throws InterruptedException { // ops/s
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] window = new long[2];
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long deadline = window[1];
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 64; i++) { // Don't read the clock on every op
+                        if (op.run()) {
+                            count++;
+                        }
+                    }
+                }
+                ops.add(count);
+                done.countDown();
+            }, "Bench-" + t);
+            worker.start();
+        }
+        window[0] = System.nanoTime();
+        window[1] = window[0] + ITERATION_MS * 1_000_000L;
+        start.countDown();
+        done.await();
+        return ops.sum() / ((System.nanoTime() - window[0]) / 1e9);
+    }
+
+    private void measure(String name, String params, String unit, int warmups, int iterations, Iteration iteration)
+            throws InterruptedException {
+        if (!name.contains(FILTER)) {
+            return;
+        }
+        for (int i = 0; i < warmups; i++) {
+            iteration.run();
+        }
+        double[] scores = new double[iterations];
+        double mean = 0;
+        for (int i = 0; i < iterations; i++) {
+            scores[i] = iteration.run();
+            mean += scores[i];
+        }
+        mean /= iterations;
+        double variance = 0;
+        for (double score : scores) {
+            variance += (score - mean) * (score - mean);
+        }
+        double stdDev = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+
+        CONSOLE.printf("%-28s %-22s %14.1f +- %10.1f %s\n", name, params, mean, stdDev, unit);
+
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < scores.length; i++) {
+            raw.append(i == 0 ? "" : ", ").append(String.format("%.3f", scores[i]));
+        }
+        results.add(String.format("  {\"benchmark\": \"AirportBenchmark.%s\", \"mode\": \"thrpt\", "
+                + "\"warmupIterations\": %d, \"measurementIterations\": %d, \"params\": {%s}, "
+                + "\"primaryMetric\": {\"score\": %.3f, \"scoreError\": %.3f, \"scoreUnit\": \"%s\", "
+                + "\"rawData\": [[%s]]}}",
+                name, warmups, iterations,
+                params.isEmpty() ? "" : "\"" + params.replace("=", "\": \"").replace(", ", "\", \"") + "\"",
+                mean, stdDev, unit, raw));
+    }
+
+    private static Gate[] newGates(int count) {
+        Gate[] gates = new Gate[count];
+        for (int i = 0; i < count; i++) {
+            gates[i] = new Gate(i + 1, i % 4 + 1);
+        }
+        return gates;
+    }
+
+    private void dispatchDecision() throws InterruptedException {
+        Gate[] gates = newGates(3);
+        GatePool gatePool = new GatePool(gates);
+        Runway[] runways = { new Runway(1) };
+        RefuelDispatcher refuelDispatcher = new RefuelDispatcher(1, gates[0]); // Fleet never started
+        for (int size : QUEUE_SIZES) {
+            RunwayRequestQueue queue = new RunwayRequestQueue();
+            ATC atc = new ATC(runways, queue, gatePool, size);
+            for (int i = 1; i <= size; i++) {
+                queue.add(new Airplane(i, queue, gatePool, refuelDispatcher, FlightPhase.LANDING, atc));
+            }
+            // One ATC decision: pick the next plane, check runway/gate, then cycle it to the back of the queue
+            Operation op = () -> {
+                Airplane next = atc.selectNextPlane();
+                blackhole = atc.isPlaneResourceFree(next);
+                queue.remove(next);
+                queue.add(next);
+                return true;
+            };
+            measure("dispatchDecision", "queueSize=" + size, "ops/s", WARMUP_ITERATIONS, MEASURE_ITERATIONS,
+                    () -> timedOps(1, op));
+        }
+    }
+
+    private void runwayAcquireRelease() throws InterruptedException {
+        Runway runway = new Runway(1);
+        for (int threads : THREAD_COUNTS) {
+            Operation op = () -> {
+                if (runway.tryAcquireRunway()) {
+                    runway.releaseRunway();
+                    return true;
+                }
+                return false;
+            };
+            measure("runwayAcquireRelease", "threads=" + threads, "ops/s", WARMUP_ITERATIONS, MEASURE_ITERATIONS,
+                    () -> timedOps(threads, op));
+        }
+    }
+
+    private void gateAllocation() throws InterruptedException {
+        Gate[] gates = newGates(64);
+        GatePool gatePool = new GatePool(gates);
+        for (int threads : THREAD_COUNTS) {
+            Operation op = () -> {
+                Gate gate = gatePool.reserveGate(GatePool.ANY_TERMINAL);
+                if (gate == null) {
+                    return false;
+                }
+                gatePool.occupyGate(gate, null);
+                gatePool.releaseGate(gate);
+                return true;
+            };
+            measure("gateAllocation", "threads=" + threads, "ops/s", WARMUP_ITERATIONS, MEASURE_ITERATIONS,
+                    () -> timedOps(threads, op));
+        }
+    }
+
+    private void grantHandoff() throws InterruptedException {
+        // ATC -> plane permission round trips through GrantSignal, N planes against one ATC thread
+        for (int planes : THREAD_COUNTS) {
+            int requests = 64000 / planes;
+            measure("grantHandoff", "planes=" + planes, "grants/s", WARMUP_ITERATIONS, MEASURE_ITERATIONS, () -> {
+                long start = System.nanoTime();
+                long grants = GrantStress.run(planes, requests, 1, 60000);
+                return grants / ((System.nanoTime() - start) / 1e9);
+            });
+        }
+    }
+
+    private void cabinBoarding() throws InterruptedException {
+        // One engine boarding cabin after cabin, the way a pooled engine gets reused all day
+        CabinBoarding cabin = new CabinBoarding();
+        for (BoardingStrategy strategy : BoardingStrategy.values()) {
+            for (int passengers : CABIN_SIZES) {
+                long[] flight = { 0 };
+                Operation op = () -> {
+                    blackhole = cabin.board(passengers, strategy, ++flight[0]);
+                    return true;
+                };
+                measure("cabinBoarding", "strategy=" + strategy + ", passengers=" + passengers, "passengers/s",
+                        WARMUP_ITERATIONS, MEASURE_ITERATIONS, () -> passengers * timedOps(1, op));
+            }
+        }
+    }
+
+    private void endToEnd() throws InterruptedException {
+        // Whole simulation in virtual time. "threads" scales the airport: N runways, N trucks, 3N gates, 25N planes.
+        for (int threads : THREAD_COUNTS) {
+            int planes = 25 * threads;
+            Iteration iteration = () -> {
+                Airport airport = new Airport();
+                airport.setSeed(42L);
+                airport.setVirtualClock(true);
+                airport.setAirplaneCount(planes);
+                airport.setRunwayCount(threads);
+                airport.setTruckCount(threads);
+                airport.setGateCount(3 * threads);
+                airport.setMaxArrivalGapMs(500);
+                airport.setLogLevel(EventLog.Level.OFF);
+                long start = System.nanoTime();
+                quietly(airport::run);
+                return 2.0 * planes / ((System.nanoTime() - start) / 1e9); // Every plane lands and takes off
+            };
+            measure("endToEndMovements", "threads=" + threads, "movements/s", 1, 3, iteration);
+        }
+    }
+
+    private void simulated(String name, String params, Supplier<Airport> scenario) throws InterruptedException {
+        // One run in virtual time, scored in simulated time so this is airport capacity rather than how fast we
+        // compute it. Every number below comes from that same run.
+        if (!name.contains(FILTER)) {
+            return;
+        }
+        ATC[] atc = new ATC[1];
+        measure(name, params, "movements/sim-hour", 0, 1, () -> {
+            Airport airport = scenario.get();
+            airport.setVirtualClock(true);
+            airport.setLogLevel(EventLog.Level.OFF);
+            quietly(() -> atc[0] = airport.run());
+            return 3_600_000.0 * atc[0].getGrantCount() / atc[0].getSimulatedRunTime();
+        });
+        LatencyRecorder waits = atc[0].getWaitingTimes();
+        measure(name + "MeanWait", params, "ms", 0, 1, () -> waits.getAll().getMean());
+        measure(name + "LandingP99", params, "ms", 0, 1,
+                () -> waits.get(LatencyRecorder.MovementType.LANDING).getPercentile(99));
+        measure(name + "TakeoffP99", params, "ms", 0, 1,
+                () -> waits.get(LatencyRecorder.MovementType.TAKEOFF).getPercentile(99));
+        measure(name + "EmergencyMean", params, "ms", 0, 1,
+                () -> waits.get(LatencyRecorder.MovementType.EMERGENCY).getMean());
+    }
+
+    private void gatePolicy() throws InterruptedException {
+        // Gate-bound airport (2 runways, 4 gates, 2 trucks, a plane every 0-2.5 s), greedy vs predictive gates
+        for (boolean predictive : new boolean[] { false, true }) {
+            simulated("gatePolicy", "policy=" + (predictive ? "predictive" : "greedy"), () -> {
+                Airport airport = new Airport();
+                airport.setSeed(7L);
+                airport.setAirplaneCount(300);
+                airport.setRunwayCount(2);
+                airport.setTruckCount(2);
+                airport.setGateCount(4);
+                airport.setMaxArrivalGapMs(2500);
+                airport.setGatePlanning(predictive);
+                return airport;
+            });
+        }
+    }
+
+    private void schedulingPolicy() throws InterruptedException {
+        // Same day of traffic under each ATC policy: 300 flights with mixed turnarounds, one in 25 an emergency,
+        // on 2 runways and 6 gates so both the runways and the gates are contended
+        if (!"schedulingPolicy".contains(FILTER)) {
+            return;
+        }
+        Path schedule;
+        try {
+            schedule = Files.createTempFile("policies", ".csv");
+            Random rand = new Random(7);
+            List<ScheduledFlight> flights = new ArrayList<>();
+            long arrival = 0;
+            for (int i = 0; i < 300; i++) {
+                arrival += rand.nextInt(3201);
+                flights.add(new ScheduledFlight(arrival, rand.nextInt(25) == 0, rand.nextInt(1, 50),
+                        rand.nextInt(1, 50), 1000 + rand.nextInt(5001), 500 + rand.nextInt(3501)));
+            }
+            FlightSchedule.writeCsv(flights.iterator(), schedule);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String policy : new String[] { "fcfs", "shortest-turnaround", "alternating", "weighted-fair:1:1",
+                "weighted-fair:2:1" }) {
+            simulated("schedulingPolicy", "policy=" + policy, () -> {
+                Airport airport = new Airport();
+                airport.setSeed(7L);
+                airport.setScheduleFile(schedule.toString());
+                airport.setRunwayCount(2);
+                airport.setTruckCount(2);
+                airport.setGateCount(10);
+                airport.setSchedulingPolicy(policy);
+                return airport;
+            });
+        }
+        try {
+            Files.deleteIfExists(schedule);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void runwayCapacity() throws InterruptedException {
+        // Saturated runways (400 flights 0-600 ms apart, 2 runways, 40 gates) with 30% light, 50% medium and 20%
+        // heavy planes: the semaphore, which can't do wake separation, against slot booking with separation
+        if (!"runwayCapacity".contains(FILTER)) {
+            return;
+        }
+        Path schedule;
+        try {
+            schedule = Files.createTempFile("capacity", ".csv");
+            Random rand = new Random(7);
+            List<ScheduledFlight> flights = new ArrayList<>();
+            long arrival = 0;
+            for (int i = 0; i < 400; i++) {
+                arrival += rand.nextInt(601);
+                int size = rand.nextInt(10);
+                int passengers = size < 3 ? rand.nextInt(5, 20) : size < 8 ? rand.nextInt(50, 200)
+                        : rand.nextInt(250, 400);
+                flights.add(new ScheduledFlight(arrival, false, passengers, passengers,
+                        ScheduledFlight.DEFAULT_SERVICE_MS, ScheduledFlight.DEFAULT_REFUEL_MS));
+            }
+            FlightSchedule.writeCsv(flights.iterator(), schedule);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long[][] configs = { { -1, 0 }, { 0, 2000 }, { 250, 2000 }, { 500, 2000 }, { 500, 6000 } }; // wake, horizon
+        for (long[] config : configs) {
+            String params = config[0] < 0 ? "semaphore" : "wakeMs=" + config[0] + ", horizon=" + config[1];
+            simulated("runwayCapacity", params, () -> {
+                Airport airport = new Airport();
+                airport.setSeed(7L);
+                airport.setScheduleFile(schedule.toString());
+                airport.setRunwayCount(2);
+                airport.setGateCount(40);
+                airport.setTruckCount(8);
+                airport.setRunwaySlots(config[0] >= 0);
+                airport.setWakeStepMs(Math.max(0, config[0]));
+                airport.setSlotHorizonMs(config[1]);
+                return airport;
+            });
+        }
+        try {
+            Files.deleteIfExists(schedule);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void networkScaling() throws InterruptedException {
+        // AirportNetwork with 1 to 64 airports, 50 flights of 3 legs each. Every airport has its own clock and
+        // threads, so wall-clock movements/s should grow with the cores available.
+        for (int airports : THREAD_COUNTS) {
+            Iteration iteration = () -> {
+                Airport[] network = new Airport[airports];
+                for (int i = 0; i < airports; i++) {
+                    network[i] = new Airport();
+                    network[i].setLogLevel(EventLog.Level.OFF);
+                }
+                AirportNetwork airportNetwork = new AirportNetwork(network, 50, 3, 2000, 20000, 40000, 64, 42L);
+                long start = System.nanoTime();
+                quietly(airportNetwork::run);
+                return airportNetwork.getMovements() / ((System.nanoTime() - start) / 1e9);
+            };
+            measure("networkScaling", "airports=" + airports, "movements/s", 1, 3, iteration);
+        }
+    }
+
+    private void writeResults() {
+        try (FileWriter out = new FileWriter(OUTPUT)) {
+            out.write("[\n" + String.join(",\n", results) + "\n]\n");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        CONSOLE.printf("Wrote %d results to %s\n", results.size(), OUTPUT);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        AirportBenchmark benchmark = new AirportBenchmark();
+        benchmark.dispatchDecision();
+        benchmark.runwayAcquireRelease();
+        benchmark.gateAllocation();
+        benchmark.grantHandoff();
+        benchmark.cabinBoarding();
+        benchmark.endToEnd();
+        benchmark.gatePolicy();
+        benchmark.schedulingPolicy();
+        benchmark.runwayCapacity();
+        benchmark.networkScaling();
+        benchmark.writeResults();
+    }
+}
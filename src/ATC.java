@@ -1,33 +1,140 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.io.PrintStream;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ATC implements Runnable {
-    private Runway runway;
-    private Gate[] gates;
-    private List<Airplane> runwayRequestsQueue;
-    private List<Airplane> waitingQueue = new ArrayList<>(); // For FCFS order
+    private Runway[] runways; // Each landing/takeoff is given one specific runway
+    private GatePool gatePool;
+    private GatePlanner gatePlanner = null; // Look-ahead gate assignment, null is the greedy free-gates-only policy
+    private RunwayRequestQueue runwayRequestsQueue; // Emergency, takeoff and landing lanes, FCFS within each
+    private SchedulingPolicy schedulingPolicy = new FcfsPolicy(); // Orders landings and takeoffs between the lanes
+    private long slotHorizonMs = 0; // With runway slots, how far ahead a movement may be booked
+    private long nextSlotStart = -1; // From the last findSlotRunway(), ATC thread only
     private boolean emergencyLogged = false; // Added to prevent spamming emergency logs
     private boolean takeoffPriorityLogged = false;
 
     // For sanity check
-    private int planesLanded = 0;
-    private int planesTakenOff = 0;
+    private final AtomicInteger planesLanded = new AtomicInteger(0);
+    private final AtomicInteger planesTakenOff = new AtomicInteger(0);
+    // Quiescence, the run is over once every plane has departed and nothing is left on the apron
+    private final AtomicInteger outstandingPlanes = new AtomicInteger(0); // Started but not departed yet
+    private final AtomicInteger planesDeparted = new AtomicInteger(0);
+    private RefuelDispatcher refuelDispatcher = null;
+
     private AtomicInteger totalBoardedPassengers = new AtomicInteger(0); // Many passenger threads will edit this and
                                                                          // totalDisembarkedPassengers
     private AtomicInteger totalDisembarkedPassengers = new AtomicInteger(0);
 
-    private final List<Long> waitingTimes = new ArrayList<>();
-    private final int TOTAL_AIRPLANES;
+    private final LatencyRecorder waitingTimes = new LatencyRecorder(); // Lock-free, readable during the run
+    private final TurnaroundStatistics turnaroundStatistics = new TurnaroundStatistics();
+    private volatile long startTime; // On the SimClock
+    private volatile long endTime; // Set by sanityCheck() once every plane has left
+    private volatile int totalAirplanes; // Integer.MAX_VALUE until a streamed schedule has been read to the end
+    private long reportIntervalMs = 0; // Per-interval IntervalStats reports, 0 is off
+    private int reportWindow = 10; // Intervals in the rolling window
+    private IntervalStats intervalStats = null; // ATC thread only
+    private PrintStream report = System.out; // End of run statistics, a network airport collects them first
+
+    // Event-driven scheduling, ATC only runs a scheduler pass after something actually changed
+    private final ActorMonitor schedulerMonitor = new ActorMonitor();
+    private long stateChangeEvents = 0; // Guarded by schedulerMonitor, bumped by notifyStateChange()
+    private long schedulerPasses = 0;
+    private long schedulerWakeups = 0; // Passes = wakeups + grants, so nothing runs while the airport is idle
 
     // GETTERS & SETTERS
+    public GatePlanner getGatePlanner() {
+        return gatePlanner;
+    }
+
+    public void setGatePlanner(GatePlanner gatePlanner) { // Before the ATC is started
+        this.gatePlanner = gatePlanner;
+    }
+
+    public SchedulingPolicy getSchedulingPolicy() {
+        return schedulingPolicy;
+    }
+
+    public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) { // Before the ATC is started
+        this.schedulingPolicy = schedulingPolicy;
+    }
+
+    public void setReport(PrintStream report) { // Before the ATC is started
+        this.report = report;
+    }
+
+    public void setSlotHorizonMs(long slotHorizonMs) { // Before the ATC is started
+        this.slotHorizonMs = slotHorizonMs;
+    }
+
+    public void setRefuelDispatcher(RefuelDispatcher refuelDispatcher) { // Before the ATC is started
+        this.refuelDispatcher = refuelDispatcher;
+    }
+
+    public void setIntervalReports(long reportIntervalMs, int reportWindow) { // Before the ATC is started
+        this.reportIntervalMs = reportIntervalMs;
+        this.reportWindow = reportWindow;
+    }
+
+    public int getOutstandingPlanes() {
+        return outstandingPlanes.get();
+    }
+
+    public int getPlanesDeparted() {
+        return planesDeparted.get();
+    }
+
+    public int getPlanesLanded() {
+        return planesLanded.get();
+    }
+
+    public int getPlanesTakenOff() {
+        return planesTakenOff.get();
+    }
+
+    public long getGrantCount() { // Every landing and takeoff is counted when it's granted
+        return planesLanded.get() + planesTakenOff.get();
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getSimulatedRunTime() { // After the run
+        return endTime - startTime;
+    }
+
+    public long getSchedulerPasses() {
+        schedulerMonitor.lock();
+        try {
+            return schedulerPasses;
+        } finally {
+            schedulerMonitor.unlock();
+        }
+    }
+
+    public long getStateChangeEvents() {
+        schedulerMonitor.lock();
+        try {
+            return stateChangeEvents;
+        } finally {
+            schedulerMonitor.unlock();
+        }
+    }
+
+    public long getSchedulerWakeups() {
+        schedulerMonitor.lock();
+        try {
+            return schedulerWakeups;
+        } finally {
+            schedulerMonitor.unlock();
+        }
+    }
 
     // CONSTRUCTOR
-    public ATC(Runway runway, List<Airplane> runwayRequestsQueue, Gate[] gates, int totalAirplanes) {
-        this.runway = runway;
+    public ATC(Runway[] runways, RunwayRequestQueue runwayRequestsQueue, GatePool gatePool, int totalAirplanes) {
+        this.runways = runways;
         this.runwayRequestsQueue = runwayRequestsQueue;
-        this.gates = gates;
-        this.TOTAL_AIRPLANES = totalAirplanes;
+        this.gatePool = gatePool;
+        this.totalAirplanes = totalAirplanes < 0 ? Integer.MAX_VALUE : totalAirplanes;
     }
 
     // METHODS
@@ -39,404 +146,411 @@ public class ATC implements Runnable {
         totalDisembarkedPassengers.addAndGet(count);
     }
 
-    private boolean isPlaneResourceFree(Airplane airplane) {
-        boolean needsGate = airplane.getNextAction().equals("Landing") ||
-                airplane.getNextAction().equals("Emergency Landing");
-        if (needsGate) {
-            return runway.isRunwayAvailable() && findFreeGate() != null;
-        } else if (airplane.getNextAction().equals("Takeoff")) {
-            return runway.isRunwayAvailable();
-        }
+    public void setTotalAirplanes(int totalAirplanes) { // Once every plane of the schedule has been started
+        this.totalAirplanes = totalAirplanes;
+        notifyStateChange(); // In case the last one has already left
+    }
 
-        return false;
+    public void planeStarted() { // Before the plane's thread is started
+        outstandingPlanes.incrementAndGet();
     }
 
-    private Airplane findEmergencyAirplane() {
-        synchronized (runwayRequestsQueue) {
-            for (Airplane airplane : runwayRequestsQueue) {
-                if (airplane.getNextAction().equals("Emergency Landing")) {
-                    if (!emergencyLogged) {
-                        System.out.printf(
-                                "[%s]: EMERGENCY LANDING DETECTED in request queue. Plane %d will be the next plane to land.\n",
-                                Thread.currentThread().getName(),
-                                airplane.getPlaneNo());
-                        emergencyLogged = true;
-                    }
-                    // runwayRequestsQueue.remove(airplane);
-                    requeueFront(waitingQueue, airplane);
-                    return airplane;
-                }
-            }
+    public void planeDeparted() { // Last thing a plane does, its runway and gate are already released
+        planesDeparted.incrementAndGet();
+        outstandingPlanes.decrementAndGet();
+        notifyStateChange(); // Might be the last one
+    }
+
+    public void notifyStateChange() { // Called on new requests, runway releases and freed gates
+        schedulerMonitor.lock();
+        try {
+            stateChangeEvents++;
+            schedulerMonitor.signalAll();
+        } finally {
+            schedulerMonitor.unlock();
         }
+    }
 
-        synchronized (waitingQueue) {
-            for (Airplane airplane : waitingQueue) { // Technically don't need this, all it ever will do it make sure
-                                                     // emerg
-                                                     // planes stay at the front.
-                if (airplane.getNextAction().equals("Emergency Landing")) {
-                    if (!emergencyLogged) {
-                        System.out.printf(
-                                "[%s]: EMERGENCY LANDING DETECTED in waiting queue. Plane %d will be the next plane to land.\n",
-                                Thread.currentThread().getName(),
-                                airplane.getPlaneNo());
-                        emergencyLogged = true;
-                    }
-                    // waitingQueue.remove(airplane);
-                    requeueFront(waitingQueue, airplane);
-                    return airplane;
-                }
+    private long awaitStateChange(long lastSeenEvents) throws InterruptedException {
+        schedulerMonitor.lock();
+        try {
+            while (stateChangeEvents == lastSeenEvents) {
+                schedulerMonitor.await();
             }
+            schedulerWakeups++;
+            return stateChangeEvents;
+        } finally {
+            schedulerMonitor.unlock();
         }
-        return null;
     }
 
-    private Airplane findNextTakeoffAirplane() {
-        synchronized (waitingQueue) {
-            for (Airplane airplane : waitingQueue) {
-                if (airplane.getNextAction().equals("Takeoff")) {
-                    // System.out.println("Found takeoff airplane in waiting queue: " +
-                    // airplane.getPlaneNo());
-                    waitingQueue.remove(airplane);
-                    requeueFront(waitingQueue, airplane);
-                    return airplane;
-                }
-            }
+    boolean isPlaneResourceFree(Airplane airplane) { // Package-private so AirportBenchmark can time decisions
+        switch (airplane.getPhase()) {
+            case LANDING:
+            case EMERGENCY_LANDING:
+                return findRunway(airplane) != null
+                        && (gatePool.hasFreeGate() || (gatePlanner != null && gatePlanner.findGate(airplane) != null));
+            case TAKEOFF:
+                return findRunway(airplane) != null;
+            default:
+                return false;
         }
-        synchronized (runwayRequestsQueue) {
-            for (Airplane airplane : runwayRequestsQueue) {
-                if (airplane.getNextAction().equals("Takeoff")) {
-                    // System.out.println("Found takeoff airplane in main queue: " +
-                    // airplane.getPlaneNo());
-                    runwayRequestsQueue.remove(airplane);
-                    requeueFront(waitingQueue, airplane);
-                    return airplane;
-                }
-            }
+    }
+
+    private Airplane findEmergencyAirplane() {
+        Airplane airplane = runwayRequestsQueue.peekEmergency();
+        if (airplane != null && !emergencyLogged) {
+            EventLog.log(EventType.ATC_EMERGENCY_DETECTED, airplane.getPlaneNo());
+            emergencyLogged = true;
         }
-        return null;
+        return airplane;
     }
 
-    private void dumpQueues(String when) {
-        synchronized (runwayRequestsQueue) {
-            synchronized (waitingQueue) {
-                Object[] mainArr = runwayRequestsQueue.toArray();
-                Object[] waitArr = waitingQueue.toArray();
-
-                StringBuilder sb = new StringBuilder();
-                sb.append(String.format("[%s]: QUEUE DUMP (%s) — MainQueue(size=%d): ",
-                        Thread.currentThread().getName(), when, mainArr.length));
-                for (Object o : mainArr) {
-                    Airplane p = (Airplane) o;
-                    sb.append(String.format("%d(%s), ", p.getPlaneNo(), p.getNextAction()));
-                }
+    private Airplane findNextTakeoffAirplane() {
+        return runwayRequestsQueue.peekTakeoff();
+    }
 
-                sb.append(String.format(" || WaitingQueue(size=%d): ",
-                        waitArr.length));
-                for (Object o : waitArr) {
-                    Airplane p = (Airplane) o;
-                    sb.append(String.format("%d(%s), ", p.getPlaneNo(), p.getNextAction()));
-                }
+    private void dumpQueues(String when) {
+        if (EventLog.isEnabled(EventType.ATC_QUEUE_DUMP)) { // toString walks every lane, only pay for it at DEBUG
+            EventLog.log(EventType.ATC_QUEUE_DUMP, when, runwayRequestsQueue.toString());
+        }
+    }
 
-                System.out.println(sb.toString());
+    private void acknowledgeNewRequests() { // Ensure all planes are responded to immediately upon entry
+        Airplane airplane;
+        while ((airplane = runwayRequestsQueue.pollUnacknowledged()) != null) {
+            if (!airplane.isQueuedLogged()) {
+                EventLog.log(EventType.ATC_REQUEST_QUEUED, airplane.getPlaneNo());
+                FlightJournal.record(FlightJournal.Kind.DENY, airplane.getPhase(), airplane.getPlaneNo(), 0, 0, 0);
+                airplane.setQueuedLogged(true);
             }
         }
     }
 
-    private void moveAllToWaitingQueue() { // Ensure all planes are responded to immediately upon entry
-        Airplane airplane = null;
-        synchronized (runwayRequestsQueue) {
-            synchronized (waitingQueue) {
-                while (!runwayRequestsQueue.isEmpty()) {
-                    airplane = runwayRequestsQueue.remove(0);
-                    if (!airplane.isQueuedLogged()) {
-                        System.out.printf(
-                                "[%s]: Permission denied for Plane %d. Other planes are being processed - moved to waiting queue.\n",
-                                Thread.currentThread().getName(),
-                                airplane.getPlaneNo());
-                        airplane.setQueuedLogged(true);
-                    }
-                    waitingQueue.add(airplane);
-                }
-                runwayRequestsQueue.notifyAll();
-                waitingQueue.notifyAll();
+    private Gate assignGate(Airplane airplane) { // A free gate, else one the planner expects to be vacated in time
+        Gate gate = gatePool.reserveGate(airplane.getPreferredTerminal());
+        if (gate == null && gatePlanner != null) {
+            gate = gatePlanner.preassign(airplane);
+            if (gate == null) { // The planner's gate was vacated before we could claim it, so it's free now
+                gate = gatePool.reserveGate(airplane.getPreferredTerminal());
             }
         }
+        return gate;
+    }
 
+    private Runway findRunway(Airplane airplane) { // Free now, or with slots the one with the earliest slot
+        return runways[0].getTimeline() != null ? findSlotRunway(airplane) : findFreeRunway();
     }
 
-    private Gate findFreeGate() {
-        for (Gate gate : gates) {
-            if (!gate.isReserved()) {
-                return gate;
-            }
-        }
-        return null;
+    private static long runwayTimeMs(Airplane airplane) { // How long the movement keeps the runway
+        return airplane.getPhase() == FlightPhase.TAKEOFF ? GatePlanner.TAKEOFF_MS : GatePlanner.LANDING_TO_GATE_MS;
     }
 
-    private boolean allGatesFree() {
-        for (Gate gate : gates) {
-            if (gate.isOccupied() || gate.isReserved()) {
-                return false;
+    private Runway findSlotRunway(Airplane airplane) { // Earliest slot within the horizon, sets nextSlotStart
+        long now = SimClock.get().now();
+        Runway best = null;
+        long bestStart = now + slotHorizonMs + 1;
+        for (Runway runway : runways) {
+            long start = runway.getTimeline().earliestStart(now, runwayTimeMs(airplane), airplane.getWakeCategory());
+            if (start < bestStart) {
+                best = runway;
+                bestStart = start;
             }
         }
-        return true;
+        nextSlotStart = bestStart;
+        return best;
     }
 
-    public boolean simulationCompleted() {
-        synchronized (runwayRequestsQueue) {
-            synchronized (waitingQueue) {
-                return runwayRequestsQueue.isEmpty()
-                        && waitingQueue.isEmpty()
-                        && runway.isRunwayAvailable()
-                        && allGatesFree();
+    private Runway findFreeRunway() {
+        for (Runway runway : runways) {
+            if (runway.isRunwayAvailable()) {
+                return runway;
             }
         }
+        return null;
     }
 
-    private void requeueFront(List<Airplane> queue, Airplane airplane) { // Use to prioritize emergency planes
-        synchronized (queue) {
-            queue.remove(airplane);
-            queue.add(0, airplane);
+    private boolean allRunwaysFree() {
+        for (Runway runway : runways) {
+            if (!runway.isRunwayAvailable()) {
+                return false;
+            }
         }
+        return true;
     }
 
-    private void processNextPlane() throws InterruptedException {
-        // dumpQueues("Start");
-        Airplane nextAirplane = null;
-        synchronized (runwayRequestsQueue) {
-            while (runwayRequestsQueue.isEmpty() && waitingQueue.isEmpty()) {
-                runwayRequestsQueue.wait();
-            }
-
-            nextAirplane = findEmergencyAirplane();
-
-            if (nextAirplane == null) {
-                synchronized (waitingQueue) {
-                    if (!waitingQueue.isEmpty()) {
-                        nextAirplane = waitingQueue.get(0); // Don't take, waiting queue order must be preserved for
-                                                            // FCFS, only take when approved
-                    }
-                }
+    public boolean simulationCompleted() { // Counters only, no queue locks and no walking the gates
+        return planesDeparted.get() >= totalAirplanes
+                && outstandingPlanes.get() == 0
+                && gatePool.getBusyCount() == 0
+                && (refuelDispatcher == null || refuelDispatcher.getBacklog() == 0);
+    }
 
-                if (nextAirplane == null && !runwayRequestsQueue.isEmpty()) {
-                    nextAirplane = runwayRequestsQueue.get(0);
-                    runwayRequestsQueue.remove(0);
-                }
-            }
+    Airplane selectNextPlane() { // The dispatch decision on its own, doesn't take the plane off the queue
+        Airplane emergency = findEmergencyAirplane();
+        if (emergency == null && runwayRequestsQueue.isEmpty()) {
+            return null;
         }
 
-        if (nextAirplane == null) {
-            return;
-        }
-        // dumpQueues("after select");
-
-        if (findFreeGate() == null) { // If no gates are free then no planes can land, then the program just stalls.
+        if (!gatePool.hasFreeGate()) { // If no gates are free then no planes can land, then the program just stalls.
             if (!takeoffPriorityLogged) {
-                System.out.printf("[%s]: No free gates available currently. Temporarily prioritizing takeoffs.\n",
-                        Thread.currentThread().getName());
+                EventLog.log(EventType.ATC_TAKEOFF_PRIORITY);
                 takeoffPriorityLogged = true;
             }
             Airplane takeoffCandidate = findNextTakeoffAirplane();
             if (takeoffCandidate != null) {
-                nextAirplane = takeoffCandidate;
+                return takeoffCandidate;
             }
         } else {
             takeoffPriorityLogged = false; // Reset log flag when gates become available
         }
+        if (emergency != null) {
+            return emergency;
+        }
+        return schedulingPolicy.select(runwayRequestsQueue); // Don't take, only take when approved
+    }
 
-        if (isPlaneResourceFree(nextAirplane)) {
-            if (nextAirplane.getNextAction().equals("Emergency Landing")
-                    || nextAirplane.getNextAction().equals("Landing")) {
-                Gate assignedGate = findFreeGate();
-                if (assignedGate != null) {
-                    assignedGate.setReserved(true);
-                }
-                nextAirplane.setAssignedGate(assignedGate);
-            }
+    private boolean processNextPlane() { // Returns true if a plane was granted, so run() knows to go again
+        // dumpQueues("Start");
+        schedulerMonitor.lock();
+        try {
+            schedulerPasses++;
+        } finally {
+            schedulerMonitor.unlock();
+        }
+        Airplane nextAirplane = selectNextPlane();
+        if (nextAirplane == null) {
+            return false;
+        }
+        // dumpQueues("after select");
 
-            runway.acquireRunway(); // Acquire runway for the plane
-            synchronized (runwayRequestsQueue) {
-                runwayRequestsQueue.remove(nextAirplane);
-            }
-            synchronized (waitingQueue) {
-                waitingQueue.remove(nextAirplane);
+        boolean granted = isPlaneResourceFree(nextAirplane);
+        FlightPhase phase = nextAirplane.getPhase();
+        boolean isLanding = phase != FlightPhase.TAKEOFF; // isPlaneResourceFree only passes landings/takeoffs
+        Gate gate = null;
+        if (granted && isLanding) {
+            gate = assignGate(nextAirplane);
+            granted = gate != null; // The planner's estimates move as turnarounds progress
+        }
+        if (granted) {
+            if (isLanding) {
+                nextAirplane.setAssignedGate(gate);
             }
 
-            if (nextAirplane.getNextAction().equals("Emergency Landing")
-                    || nextAirplane.getNextAction().equals("Landing")) {
-                System.out.printf("[%s]: %s Permission Granted to Plane %d. Assigned Gate: %d\n",
-                        Thread.currentThread().getName(),
-                        nextAirplane.getNextAction(), nextAirplane.getPlaneNo(),
-                        nextAirplane.getAssignedGate().getGateNo());
+            Runway assignedRunway = findRunway(nextAirplane);
+            if (assignedRunway.getTimeline() != null) {
+                assignedRunway.bookSlot(nextSlotStart, runwayTimeMs(nextAirplane), nextAirplane.getWakeCategory());
+                nextAirplane.setSlotStart(nextSlotStart);
+                EventLog.log(EventType.ATC_SLOT_BOOKED, assignedRunway.getRunwayNo(), nextAirplane.getPlaneNo(),
+                        nextSlotStart);
             } else {
-                System.out.printf("[%s]: %s Permission Granted to Plane %d.\n", Thread.currentThread().getName(),
-                        nextAirplane.getNextAction(), nextAirplane.getPlaneNo());
+                assignedRunway.tryAcquireRunway(); // Can't fail, only the ATC thread acquires and we just checked it
+            }
+            nextAirplane.setAssignedRunway(assignedRunway);
+            runwayRequestsQueue.remove(nextAirplane);
+
+            if (isLanding && nextAirplane.getAssignedGate().getPreassignedPlane() == nextAirplane) {
+                EventLog.log(EventType.ATC_GRANTED_WITH_PREASSIGNED_GATE, phase, nextAirplane.getPlaneNo(),
+                        nextAirplane.getAssignedGate().getGateNo(), assignedRunway.getRunwayNo());
+            } else if (isLanding) {
+                EventLog.log(EventType.ATC_GRANTED_WITH_GATE, phase, nextAirplane.getPlaneNo(),
+                        nextAirplane.getAssignedGate().getGateNo(), assignedRunway.getRunwayNo());
+            } else {
+                EventLog.log(EventType.ATC_GRANTED, phase, nextAirplane.getPlaneNo(), assignedRunway.getRunwayNo());
             }
 
             nextAirplane.markPermissionGrantedTime();
+            FlightJournal.recordAt(nextAirplane.getPermissionGrantedTime(), FlightJournal.Kind.GRANT, phase,
+                    nextAirplane.getPlaneNo(), nextAirplane.getAssignedGate().getGateNo(),
+                    assignedRunway.getRunwayNo(), nextAirplane.getWaitingTime());
 
-            if (nextAirplane.getNextAction().equals("Takeoff")) {
-                recordServedTakeoff(nextAirplane);
-            } else {
+            if (isLanding) {
                 recordServedLanding(nextAirplane);
+            } else {
+                recordServedTakeoff(nextAirplane);
             }
 
-            synchronized (nextAirplane) {
-                nextAirplane.notifyAll();
+            if (phase == FlightPhase.EMERGENCY_LANDING) {
+                emergencyLogged = false; // Reset so the next emergency in the schedule is announced too
             }
+            schedulingPolicy.granted(nextAirplane);
+            nextAirplane.grantPermission();
         } else {
+            FlightJournal.record(FlightJournal.Kind.DENY, nextAirplane.getPhase(), nextAirplane.getPlaneNo(), 0, 0,
+                    0);
             if (!nextAirplane.isQueuedLogged()) {
-                System.out.printf(
-                        "[%s]: %s Permission Denied to Plane %d. Next in queue, but either the runway or gates are not available.\n",
-                        Thread.currentThread().getName(),
-                        nextAirplane.getNextAction(), nextAirplane.getPlaneNo());
+                EventLog.log(EventType.ATC_DENIED, nextAirplane.getPhase(), nextAirplane.getPlaneNo());
                 nextAirplane.setQueuedLogged(true);
             }
-            if (!waitingQueue.contains(nextAirplane)) {
-                waitingQueue.add(nextAirplane);
-            }
-            // dumpQueues("After requeue");
-
+            // dumpQueues("After deny");
         }
 
-        moveAllToWaitingQueue();
-        // dumpQueues("After move to wait");
+        acknowledgeNewRequests();
+        // dumpQueues("After acknowledge");
+        return granted;
+    }
+
+    public LatencyRecorder getWaitingTimes() {
+        return waitingTimes;
+    }
 
+    public void recordTurnaround(Turnaround turnaround) {
+        turnaroundStatistics.record(turnaround);
+        if (gatePlanner != null) {
+            gatePlanner.recordTurnaround(turnaround);
+        }
     }
 
-    public synchronized void recordServedTakeoff(Airplane airplane) {
-        planesTakenOff++;
-        waitingTimes.add(airplane.getWaitingTime());
+    public TurnaroundStatistics getTurnaroundStatistics() {
+        return turnaroundStatistics;
     }
 
-    public synchronized void recordServedLanding(Airplane airplane) {
-        planesLanded++;
-        waitingTimes.add(airplane.getWaitingTime());
+    public void recordServedTakeoff(Airplane airplane) {
+        planesTakenOff.incrementAndGet();
+        waitingTimes.record(LatencyRecorder.MovementType.TAKEOFF, airplane.getWaitingTime());
+        if (intervalStats != null) {
+            intervalStats.record(LatencyRecorder.MovementType.TAKEOFF, airplane.getWaitingTime());
+        }
+    }
+
+    public void recordServedLanding(Airplane airplane) {
+        planesLanded.incrementAndGet();
+        LatencyRecorder.MovementType type = airplane.getPhase() == FlightPhase.EMERGENCY_LANDING
+                ? LatencyRecorder.MovementType.EMERGENCY
+                : LatencyRecorder.MovementType.LANDING;
+        waitingTimes.record(type, airplane.getWaitingTime());
+        if (intervalStats != null) {
+            intervalStats.record(type, airplane.getWaitingTime());
+        }
     }
 
     private void sanityCheck() {
-        System.out.println(
+        EventLog.flush(); // The report goes straight to stdout, get the actors' lines out first
+        report.println(
                 "**************************************************************************************************");
 
-        System.out.printf("[%s]: Simulation completed. Performing sanity check...\n", Thread.currentThread().getName());
+        report.printf("[%s]: Simulation completed. Performing sanity check...\n", Thread.currentThread().getName());
 
-        System.out.printf("[%s]: Checking for occupied gates...\n", Thread.currentThread().getName());
-        try {
-            Thread.sleep(1000); // Simulate time taken for sanity check
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        if (allGatesFree()) {
-            System.out.printf("[%s]: All gates are free.\n", Thread.currentThread().getName());
+        report.printf("[%s]: Checking for occupied gates...\n", Thread.currentThread().getName());
+        if (gatePool.allGatesFree()) {
+            report.printf("[%s]: All gates are free.\n", Thread.currentThread().getName());
         } else {
-            System.out.printf("[%s]: Sanity check FAILED! Some gates are still occupied or reserved.\n",
-                    Thread.currentThread().getName());
+            report.printf("[%s]: Sanity check FAILED! Some gates are still occupied or reserved. (free: %d, reserved: %d, occupied: %d)\n",
+                    Thread.currentThread().getName(), gatePool.getFreeCount(), gatePool.getReservedCount(),
+                    gatePool.getOccupiedCount());
         }
 
-        System.out.printf("[%s]: Checking runway availability...\n", Thread.currentThread().getName());
-        try {
-            Thread.sleep(1000); // Simulate time taken for sanity check
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        if (runway.isRunwayAvailable()) {
-            System.out.printf("[%s]: Runway is available.\n", Thread.currentThread().getName());
+        report.printf("[%s]: Checking runway availability...\n", Thread.currentThread().getName());
+        if (allRunwaysFree()) {
+            report.printf("[%s]: All %d runway(s) are available.\n", Thread.currentThread().getName(),
+                    runways.length);
         } else {
-            System.out.printf("[%s]: Sanity check FAILED! Runway is still occupied.\n",
+            report.printf("[%s]: Sanity check FAILED! A runway is still occupied.\n",
                     Thread.currentThread().getName());
         }
 
-        System.out.printf("[%s]: Checking waiting queues...\n", Thread.currentThread().getName());
-        try {
-            Thread.sleep(1000); // Simulate time taken for sanity check
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        if (waitingQueue.isEmpty() && runwayRequestsQueue.isEmpty()) {
-            System.out.printf("[%s]: No pending requests in queues.\n", Thread.currentThread().getName());
+        report.printf("[%s]: Checking waiting queues...\n", Thread.currentThread().getName());
+        if (runwayRequestsQueue.isEmpty()) {
+            report.printf("[%s]: No pending requests in queues.\n", Thread.currentThread().getName());
         } else {
-            System.out.printf("[%s]: Sanity check FAILED! There are still pending requests in queues.\n",
+            report.printf("[%s]: Sanity check FAILED! There are still pending requests in queues.\n",
                     Thread.currentThread().getName());
-            for (Gate gate : gates) {
+            for (Gate gate : gatePool.getGates()) {
                 if (gate.isOccupied() || gate.isReserved()) {
-                    System.out.printf("[%s]: Gate %d is still occupied or reserved.\n",
+                    report.printf("[%s]: Gate %d is still occupied or reserved.\n",
                             Thread.currentThread().getName(), gate.getGateNo());
                 }
             }
         }
 
-        System.out.println("-------------------------------- Plane Statistics --------------------------------");
-        System.out.printf("[%s]: Total planes landed: %d\n", Thread.currentThread().getName(), planesLanded);
-        System.out.printf("[%s]: Total planes taken off: %d\n", Thread.currentThread().getName(), planesTakenOff);
+        endTime = SimClock.get().now();
+        if (intervalStats != null) {
+            intervalStats.finish(endTime);
+        }
+        FlightJournal.recordAt(endTime, FlightJournal.Kind.SIMULATION_END, null, 0, 0, 0, totalAirplanes);
+        report.println("-------------------------------- Plane Statistics --------------------------------");
+        report.printf("[%s]: Simulated run time: %d ms (%s)\n", Thread.currentThread().getName(),
+                endTime - startTime, SimClock.get().getClass().getSimpleName());
+        report.printf("[%s]: Scheduling policy: %s\n", Thread.currentThread().getName(), schedulingPolicy);
+        report.printf("[%s]: Total planes landed: %d\n", Thread.currentThread().getName(), planesLanded.get());
+        report.printf("[%s]: Total planes taken off: %d\n", Thread.currentThread().getName(), planesTakenOff.get());
+        for (Runway runway : runways) {
+            report.printf("[%s]: Runway %d handled %d movements\n", Thread.currentThread().getName(),
+                    runway.getRunwayNo(), runway.getMovements());
+            if (runway.getTimeline() != null && endTime > startTime) {
+                report.printf("[%s]: Runway %d booked %.1f%% of the time, %.0f movements/hour\n",
+                        Thread.currentThread().getName(), runway.getRunwayNo(),
+                        100.0 * runway.getTimeline().getOccupiedMs() / (endTime - startTime),
+                        3_600_000.0 * runway.getMovements() / (endTime - startTime));
+            }
+        }
 
-        System.out.printf("[%s]: Total passengers boarded: %d\n", Thread.currentThread().getName(),
+        report.printf("[%s]: Total passengers boarded: %d\n", Thread.currentThread().getName(),
                 totalBoardedPassengers.get());
-        System.out.printf("[%s]: Total passengers disembarked: %d\n", Thread.currentThread().getName(),
+        report.printf("[%s]: Total passengers disembarked: %d\n", Thread.currentThread().getName(),
                 totalDisembarkedPassengers.get());
 
-        // System.out.println("Waiting times of all planes served (ms): " +
-        // waitingTimes);
-
-        waitingTimes.sort(null);
-        double averageWait = 0;
-        for (long wt : waitingTimes) {
-            averageWait += wt;
+        // Min non-zero: one wait is definitely 0 (plane 1). It is highly likely the next smallest is also near 0.
+        // Gates are full, ATC is waiting for a takeoff, so when a takeoff requests permission it gets it immediately.
+        LatencyHistogram allWaits = waitingTimes.getAll();
+        report.printf("[%s]: Average plane waiting time: %.2f ms\n", Thread.currentThread().getName(),
+                allWaits.getMean());
+        report.printf("[%s]: Maximum plane waiting time: %.2f ms\n", Thread.currentThread().getName(),
+                (double) allWaits.getMax());
+        report.printf("[%s]: Minimum non-zero plane waiting time: %.2f ms\n", Thread.currentThread().getName(),
+                (double) allWaits.getMinNonZero());
+        for (LatencyRecorder.MovementType type : LatencyRecorder.MovementType.values()) {
+            report.printf("[%s]: %s waits: %s\n", Thread.currentThread().getName(), type,
+                    waitingTimes.describe(type));
         }
-        averageWait /= waitingTimes.size();
-
-        double maxWait = waitingTimes.get(waitingTimes.size() - 1);
-
-        double minNonZero = 0; // One element is definitely 0 (plane 1)
-        for (int i = 0; i < waitingTimes.size(); i++) {
-            if (waitingTimes.get(i) > 0) {
-                minNonZero = waitingTimes.get(i); // It is highly likely the next smallest is also near 0. Gates are
-                                                  // full, ATC is waiting for a takeoff, so when a takeoff requests
-                                                  // permission it gets it immediately.
-                break;
-            }
+        turnaroundStatistics.print(report);
+        if (gatePlanner != null) {
+            gatePlanner.printStatistics(report);
         }
-        // minNonZero = waitingTimes.get(0); 
+        report.printf("[%s]: Scheduler passes: %d (wakeups: %d, grants: %d) for %d state change events\n",
+                Thread.currentThread().getName(), getSchedulerPasses(), getSchedulerWakeups(),
+                planesLanded.get() + planesTakenOff.get(), getStateChangeEvents());
 
-        System.out.printf("[%s]: Average plane waiting time: %.2f ms\n", Thread.currentThread().getName(), averageWait);
-        System.out.printf("[%s]: Maximum plane waiting time: %.2f ms\n", Thread.currentThread().getName(), maxWait);
-        System.out.printf("[%s]: Minimum non-zero plane waiting time: %.2f ms\n", Thread.currentThread().getName(),
-                minNonZero);
-
-        System.out.println(
+        report.println(
                 "**************************************************************************************************");
 
     }
 
     @Override
     public void run() {
+        startTime = SimClock.get().now();
+        if (reportIntervalMs > 0) {
+            intervalStats = new IntervalStats(reportIntervalMs, reportWindow, startTime, outstandingPlanes::get);
+        }
+        FlightJournal.recordAt(startTime, FlightJournal.Kind.SIMULATION_START, null, 0, 0, 0, totalAirplanes);
         try {
-            Thread.sleep(1000); // Initial delay to allow planes to start requesting, so sanity check doesn't
-                                // trigger immediately
+            SimClock.get().sleep(1000); // Initial delay to allow planes to start requesting
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        System.out.println(
-                "----------------------------------- ATC is now operational -----------------------------------");
-        while (true) {
+        EventLog.log(EventType.ATC_OPERATIONAL);
+        long lastSeenEvents = 0;
+        while (!simulationCompleted()) {
             try {
-                if (planesTakenOff >= TOTAL_AIRPLANES) {
-                    try {
-                        Thread.sleep(2000); // Wait a bit so planes mark gates as empty and they can print logs
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                    sanityCheck();
-                    return;
-                } else
-                    processNextPlane();
-                // Thread.sleep(2000); // Just to smooth console output
+                lastSeenEvents = awaitStateChange(lastSeenEvents); // Sleeps until a request, runway or gate event
+                while (processNextPlane()) {
+                    // Keep granting until nothing else fits, then go back to sleep
+                }
+                if (gatePlanner != null) {
+                    gatePlanner.foldHistory(SimClock.get().now());
+                }
+                if (intervalStats != null) {
+                    intervalStats.advanceTo(SimClock.get().now());
+                }
+                // SimClock.get().sleep(2000); // Just to smooth console output
             } catch (InterruptedException e) {
                 e.printStackTrace();
                 Thread.currentThread().interrupt();
+                return;
             }
         }
-
+        sanityCheck(); // The instant the last plane departed, it has already released its runway and gate
     }
 
 }
@@ -0,0 +1,47 @@
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ActorMonitor {
+    // Stand-in for synchronized/wait()/notifyAll(). Blocking on a j.u.c. lock doesn't pin a virtual thread to its
+    // carrier the way a monitor does, so actors can run as virtual threads.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Guarded by lock. Counting waiters lets the SimClock know exactly how many actors a signal resumes.
+    private long generation = 0;
+    private int waiters = 0;
+
+    // METHODS
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    public void await() throws InterruptedException { // Hold the lock and loop on your own predicate, like wait()
+        long seenGeneration = generation;
+        waiters++;
+        SimClock.get().actorBlocked();
+        try {
+            while (generation == seenGeneration) { // Only a signalAll() gets us out, no spurious wakeups
+                changed.await();
+            }
+        } catch (InterruptedException e) {
+            if (generation == seenGeneration) { // Nobody counted us as resumed
+                waiters--;
+                SimClock.get().actorsResumed(1);
+            }
+            throw e;
+        }
+    }
+
+    public void signalAll() { // Hold the lock, like notifyAll()
+        generation++;
+        if (waiters > 0) {
+            SimClock.get().actorsResumed(waiters);
+            waiters = 0;
+        }
+        changed.signalAll();
+    }
+}
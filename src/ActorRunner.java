@@ -0,0 +1,83 @@
+import java.lang.reflect.Method;
+
+public class ActorRunner {
+    public enum Mode {
+        PLATFORM, // One OS thread per actor, the original behaviour
+        VIRTUAL // Virtual threads, needs Java 21+, falls back to PLATFORM otherwise
+    }
+
+    private static volatile Mode mode = Mode.PLATFORM;
+
+    // Looked up reflectively so the project still compiles and runs on Java 17
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_START;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderStart = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            builderName = builder.getMethod("name", String.class);
+            builderStart = builder.getMethod("start", Runnable.class);
+        } catch (ReflectiveOperationException e) {
+            ofVirtual = null; // Pre-21 JVM
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_START = builderStart;
+    }
+
+    // GETTERS & SETTERS
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(Mode newMode) {
+        if (newMode == Mode.VIRTUAL && OF_VIRTUAL == null) {
+            System.out.printf("[%s]: Virtual threads need Java 21+, running actors on platform threads instead.\n",
+                    Thread.currentThread().getName());
+            newMode = Mode.PLATFORM;
+        }
+        mode = newMode;
+    }
+
+    // METHODS
+    public static Thread start(Runnable actor, String name) {
+        SimClock clock = SimClock.get();
+        clock.actorStarted(); // Counted before it starts, so a virtual clock can't skip ahead of it
+        Runnable tracked = () -> {
+            SimClock.inherit(clock);
+            try {
+                actor.run();
+            } finally {
+                clock.actorFinished();
+            }
+        };
+
+        if (mode == Mode.VIRTUAL) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) BUILDER_START.invoke(builder, tracked);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not start virtual thread " + name, e);
+            }
+        }
+        Thread thread = new Thread(tracked, name);
+        thread.start();
+        return thread;
+    }
+
+    public static void joinAll(Thread[] threads) { // Not from a busy actor, a virtual clock would wait on the caller
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -1,20 +1,32 @@
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Airplane implements Runnable {
     private final int planeNo;
     private AirplanePassengers passengers;
     private Gate assignedGate;
+    private Runway assignedRunway; // Given by ATC with each landing/takeoff permission
+    private int preferredTerminal = GatePool.ANY_TERMINAL;
 
-    private boolean isServiced = false;
-    private boolean isRefuelled = false;
-    private boolean isBoarded = true;
+    // Grants, docking and the end of the turnaround are all signalled here
+    private final ActorMonitor monitor = new ActorMonitor();
+    private volatile Turnaround turnaround; // Created on docking, read by crews, trucks and passengers
+
+    // Turnaround requirements, from the traffic schedule
+    private int disembarkingPassengers = -1; // -1 lets the passengers pick at random
+    private int boardingPassengers = -1;
+    private int serviceTimeMs = ScheduledFlight.DEFAULT_SERVICE_MS;
+    private int refuelTimeMs = ScheduledFlight.DEFAULT_REFUEL_MS;
 
-    private final Runway runway;
     private final ATC atc;
-    private final List<Airplane> runwayRequestsQueue;
-    private final List<Airplane> refuelRequestQueue;
-    private String nextAction; // Literally just used for nicer print statements
+    private final RunwayRequestQueue runwayRequestsQueue;
+    private final GatePool gatePool;
+    private final RefuelDispatcher refuelDispatcher;
+    private final AtomicReference<FlightPhase> phase; // Written by the plane thread, read by ATC and the queue
     private boolean isQueuedLogged = false;
+    private final GrantSignal clearance = new GrantSignal(); // ATC's grant wakes this plane's thread and no other
+    private WakeCategory wakeCategory = WakeCategory.MEDIUM;
+    private long slotStart = -1; // Booked runway slot of the current grant, -1 without slots
+    private Runnable afterTakeoff = null; // e.g. hands the next leg on to another airport
 
     // Sanity check variables
     private long landingRequestTime;
@@ -33,36 +45,64 @@ public class Airplane implements Runnable {
         this.assignedGate = assignedGate;
     }
 
-    public boolean isServiced() {
-        return isServiced;
+    public Runway getAssignedRunway() {
+        return assignedRunway;
+    }
+
+    public void setAssignedRunway(Runway assignedRunway) {
+        this.assignedRunway = assignedRunway;
+    }
+
+    public int getPreferredTerminal() {
+        return preferredTerminal;
+    }
+
+    public void setPreferredTerminal(int preferredTerminal) {
+        this.preferredTerminal = preferredTerminal;
     }
 
-    public void setServiced(boolean isServiced) {
-        this.isServiced = isServiced;
+    public int getDisembarkingPassengers() {
+        return disembarkingPassengers;
     }
 
-    public boolean isRefuelled() {
-        return isRefuelled;
+    public int getBoardingPassengers() {
+        return boardingPassengers;
     }
 
-    public void setRefuelled(boolean isRefuelled) {
-        this.isRefuelled = isRefuelled;
+    public int getServiceTimeMs() {
+        return serviceTimeMs;
     }
 
-    public boolean isBoarded() {
-        return isBoarded;
+    public int getRefuelTimeMs() {
+        return refuelTimeMs;
     }
 
-    public void setBoarded(boolean isBoarded) {
-        this.isBoarded = isBoarded;
+    public void setTurnaround(ScheduledFlight flight) { // Before the plane is started
+        this.disembarkingPassengers = flight.getDisembarkingPassengers();
+        this.boardingPassengers = flight.getBoardingPassengers();
+        this.serviceTimeMs = flight.getServiceTimeMs();
+        this.refuelTimeMs = flight.getRefuelTimeMs();
+        this.wakeCategory = WakeCategory.of(disembarkingPassengers, boardingPassengers);
     }
 
-    public String getNextAction() {
-        return nextAction;
+    public WakeCategory getWakeCategory() {
+        return wakeCategory;
     }
 
-    public void setNextAction(String status) {
-        this.nextAction = status;
+    public void setSlotStart(long slotStart) { // By ATC, before the grant
+        this.slotStart = slotStart;
+    }
+
+    public void setAfterTakeoff(Runnable afterTakeoff) { // Before the plane is started
+        this.afterTakeoff = afterTakeoff;
+    }
+
+    public Turnaround getTurnaround() {
+        return turnaround;
+    }
+
+    public FlightPhase getPhase() {
+        return phase.get();
     }
 
     public boolean isQueuedLogged() {
@@ -74,51 +114,89 @@ public class Airplane implements Runnable {
     }
 
     // CONSTRUCTOR
-    public Airplane(int id, Runway runway, List<Airplane> runwayRequestsQueue,
-            List<Airplane> refuelRequestQueue, String nextAction, ATC atc) {
+    public Airplane(int id, RunwayRequestQueue runwayRequestsQueue, GatePool gatePool,
+            RefuelDispatcher refuelDispatcher, FlightPhase initialPhase, ATC atc) {
         this.planeNo = id;
-        this.runway = runway;
         this.runwayRequestsQueue = runwayRequestsQueue;
-        this.refuelRequestQueue = refuelRequestQueue;
-        this.nextAction = nextAction;
+        this.gatePool = gatePool;
+        this.refuelDispatcher = refuelDispatcher;
+        this.phase = new AtomicReference<>(initialPhase);
         this.atc = atc;
 
-        this.passengers = new AirplanePassengers(this, atc);
-        new Thread(passengers, "Plane " + id + "'s Passengers").start();
+        this.passengers = new AirplanePassengers(this, atc); // Started in run(), a plane that isn't flying yet has
+                                                            // no passenger thread
     }
 
     // METHODS
+    private void advancePhase(FlightPhase next) {
+        FlightPhase current;
+        do {
+            current = phase.get();
+            if (!current.canAdvanceTo(next)) {
+                throw new IllegalStateException(
+                        "Plane " + planeNo + " cannot go from " + current.name() + " to " + next.name());
+            }
+        } while (!phase.compareAndSet(current, next));
+    }
+
     public void markRequestTime() {
-        this.landingRequestTime = System.currentTimeMillis();
+        this.landingRequestTime = SimClock.get().now();
     }
 
     public void markPermissionGrantedTime() {
-        this.permissionGrantedTime = System.currentTimeMillis();
+        this.permissionGrantedTime = Math.max(SimClock.get().now(), slotStart); // Waiting for the slot is waiting
+    }
+
+    public long getRequestTime() {
+        return landingRequestTime;
+    }
+
+    public long getPermissionGrantedTime() {
+        return permissionGrantedTime;
     }
 
     public long getWaitingTime() {
         return permissionGrantedTime - landingRequestTime;
     }
 
+    public void grantPermission() { // Called by ATC
+        clearance.grant();
+    }
+
+    private void awaitPermission() throws InterruptedException {
+        clearance.await(); // Consumes it, the next request needs a fresh grant
+        long untilSlot = slotStart - SimClock.get().now();
+        if (untilSlot > 0) { // Booked a slot further ahead, wait for it
+            SimClock.get().sleep(untilSlot);
+        }
+    }
+
+    public void awaitDocked() throws InterruptedException { // Used by the passengers
+        monitor.lock();
+        try {
+            // A pre-assigned gate is occupied by the plane before us for a while, so check who's docked there
+            while (assignedGate == null || assignedGate.getDockedPlane() != this || !assignedGate.isOccupied()) {
+                monitor.await();
+            }
+        } finally {
+            monitor.unlock();
+        }
+    }
+
     void requestLanding() {
         try {
-            if (nextAction.equals("Emergency Landing")) {
-                System.out.printf("[%s]: Plane %d requesting EMERGENCY landing!\n", Thread.currentThread().getName(),
-                        this.planeNo);
+            if (phase.get() == FlightPhase.EMERGENCY_LANDING) {
+                EventLog.log(EventType.PLANE_EMERGENCY_REQUEST, this.planeNo);
             } else {
-                System.out.printf("[%s]: Plane %d requesting to land.\n", Thread.currentThread().getName(),
-                        this.planeNo);
+                EventLog.log(EventType.PLANE_LANDING_REQUEST, this.planeNo);
             }
 
             markRequestTime();
-            synchronized (runwayRequestsQueue) {
-                runwayRequestsQueue.add(this);
-                runwayRequestsQueue.notifyAll(); // Notify ATC that a plane is requesting to land
-            }
+            FlightJournal.recordAt(landingRequestTime, FlightJournal.Kind.REQUEST, phase.get(), planeNo, 0, 0, 0);
+            runwayRequestsQueue.add(this);
+            atc.notifyStateChange(); // Notify ATC that a plane is requesting to land
 
-            synchronized (this) {
-                wait(); // Wait until ATC grants permission to take off
-            }
+            awaitPermission();
         } catch (InterruptedException e) {
             e.printStackTrace();
             Thread.currentThread().interrupt();
@@ -127,101 +205,134 @@ public class Airplane implements Runnable {
 
     public void land() {
         try {
-            Thread.sleep(1000);
+            SimClock.get().sleep(1000);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        System.out.printf("[%s]: Plane %d has landed.\n", Thread.currentThread().getName(), this.planeNo);
+        EventLog.log(EventType.PLANE_LANDED, this.planeNo);
+        FlightJournal.record(FlightJournal.Kind.LAND, null, planeNo, assignedGate.getGateNo(),
+                assignedRunway.getRunwayNo(), 0);
 
-        nextAction = "Landed";
+        advancePhase(FlightPhase.LANDED);
     }
 
     public void coastToGate() {
         try {
-            nextAction = "Docking";
-            Thread.sleep(1000); // Simulate time taken to coast to gate
+            advancePhase(FlightPhase.DOCKING);
+            SimClock.get().sleep(1000); // Simulate time taken to coast to gate
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        System.out.printf("[%s]: Plane %d is coasting to Gate %d.\n", Thread.currentThread().getName(), this.planeNo,
-                assignedGate.getGateNo());
+        EventLog.log(EventType.PLANE_COASTING, this.planeNo, assignedGate.getGateNo());
     }
 
-    public void dock() {
-        System.out.printf("[%s]: Plane %d has docked at Gate %d.\n", Thread.currentThread().getName(), this.planeNo,
-                assignedGate.getGateNo());
-        nextAction = "Idle";
-        runway.releaseRunway();
-
-        assignedGate.setDockedPlane(this);
-        assignedGate.setOccupied(true);
+    void gateVacated() { // Called by GatePool when the plane before us leaves our pre-assigned gate
+        monitor.lock();
+        try {
+            monitor.signalAll();
+        } finally {
+            monitor.unlock();
+        }
+    }
 
+    private void holdForGate() { // Off the runway, on the apron, until the pre-assigned gate is ours
+        EventLog.log(EventType.PLANE_HOLDING, this.planeNo, assignedGate.getGateNo());
+        long holdStart = SimClock.get().now();
+        monitor.lock();
         try {
-            Thread.sleep(1000); // Simulate time taken to dock
-            synchronized (refuelRequestQueue) {
-                refuelRequestQueue.add(this);
-                refuelRequestQueue.notifyAll(); // Notify Refuelling Truck that a plane needs refuelling
+            while (assignedGate.getPreassignedPlane() == this) {
+                monitor.await();
             }
-            System.out.printf("[%s]: Plane %d at Gate %d has requested refuelling. \n",
-                    Thread.currentThread().getName(),
-                    this.planeNo,
-                    assignedGate.getGateNo());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            monitor.unlock();
         }
+        atc.getGatePlanner().recordHold(SimClock.get().now() - holdStart);
+    }
 
-        synchronized (assignedGate) {
-            assignedGate.notifyAll(); // wake the gate’s service crew
+    public void dock() {
+        boolean holding = assignedGate.getPreassignedPlane() == this;
+        if (holding) {
+            assignedRunway.releaseRunway();
+            atc.notifyStateChange(); // The plane at our gate may need the runway to leave
+            holdForGate();
+        }
+        EventLog.log(EventType.PLANE_DOCKED, this.planeNo, assignedGate.getGateNo());
+        advancePhase(FlightPhase.IDLE);
+        if (!holding) {
+            assignedRunway.releaseRunway();
+        }
+        FlightJournal.record(FlightJournal.Kind.DOCK, null, planeNo, assignedGate.getGateNo(),
+                assignedRunway.getRunwayNo(), 0);
+        atc.notifyStateChange(); // Runway is free again
+
+        turnaround = new Turnaround(this); // Before the gate shows occupied, crews and passengers look for it
+        gatePool.occupyGate(assignedGate, this);
+
+        try {
+            SimClock.get().sleep(1000); // Simulate time taken to dock
+            refuelDispatcher.add(this); // Hands it to the best idle Refuelling Truck
+            EventLog.log(EventType.PLANE_REFUEL_REQUESTED, this.planeNo, assignedGate.getGateNo());
+            FlightJournal.record(FlightJournal.Kind.REFUEL_REQUEST, null, planeNo, assignedGate.getGateNo(), 0, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        synchronized (this) {
-            notifyAll(); // Notify passengers that the plane has docked and they can disembark
+
+        assignedGate.requestService(); // Queues the plane for the next free service crew
+        monitor.lock();
+        try {
+            monitor.signalAll(); // Notify passengers that the plane has docked and they can disembark
+        } finally {
+            monitor.unlock();
         }
-        // synchronized (atc) {
-        // atc.notifyAll(); // Notify ATC that the runway is free
-        // }
     }
 
     public boolean isReadyForTakeoff() {
-        return isServiced && isRefuelled && isBoarded;
+        Turnaround current = turnaround;
+        return current != null && current.isComplete();
+    }
+
+    void turnaroundComplete(Turnaround finished) { // Called once, by whoever finished the last stage
+        atc.recordTurnaround(finished);
+        monitor.lock();
+        try {
+            monitor.signalAll();
+        } finally {
+            monitor.unlock();
+        }
     }
 
     public void waitUntilReadyForTakeoff() {
-        System.out.printf("[%s]: Plane %d is waiting until it is ready for takeoff. (Service, Refuel, Boarding)\n",
-                Thread.currentThread().getName(), this.planeNo);
+        EventLog.log(EventType.PLANE_AWAITING_TURNAROUND, this.planeNo);
 
-        synchronized (this) {
+        monitor.lock();
+        try {
             while (!isReadyForTakeoff()) {
-                try {
-                    wait(); // Either Passengers/ServiceCrew/RefuelTruck will notify when done
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+                monitor.await(); // Signalled once, when the last turnaround stage is done
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            monitor.unlock();
         }
 
-        System.out.printf("[%s]: Plane %d is ready for takeoff!\n", Thread.currentThread().getName(), this.planeNo);
-        nextAction = "Takeoff";
+        EventLog.log(EventType.PLANE_READY, this.planeNo);
+        advancePhase(FlightPhase.TAKEOFF);
     }
 
     public void requestTakeoff() {
         try {
-            System.out.printf("[%s]: Plane %d requesting to take off\n",
-                    Thread.currentThread().getName(),
-                    this.planeNo);
+            EventLog.log(EventType.PLANE_TAKEOFF_REQUEST, this.planeNo);
 
             markRequestTime();
-            synchronized (runwayRequestsQueue) {
-                runwayRequestsQueue.add(this);
-                runwayRequestsQueue.notifyAll(); // Notify ATC that a plane is requesting to take off
-            }
-
-            nextAction = "Takeoff";
+            FlightJournal.recordAt(landingRequestTime, FlightJournal.Kind.REQUEST, phase.get(), planeNo, 0, 0, 0);
+            runwayRequestsQueue.add(this);
+            atc.notifyStateChange(); // Notify ATC that a plane is requesting to take off
 
-            synchronized (this) {
-                wait(); // Wait until ATC grants permission to take off
-            }
+            awaitPermission();
         } catch (InterruptedException e) {
             e.printStackTrace();
             Thread.currentThread().interrupt();
@@ -230,27 +341,25 @@ public class Airplane implements Runnable {
 
     public void takeoff() {
         try {
-            Thread.sleep(1000); // Simulate time taken to take off
+            SimClock.get().sleep(1000); // Simulate time taken to take off
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        System.out.printf("[%s]: Plane %d has taken off from Gate %d.\n", Thread.currentThread().getName(),
-                this.planeNo,
-                assignedGate.getGateNo());
+        EventLog.log(EventType.PLANE_TOOK_OFF, this.planeNo, assignedGate.getGateNo());
 
-        runway.releaseRunway();
-        assignedGate.setReserved(false);
-        assignedGate.setOccupied(false);
-        assignedGate.setDockedPlane(null);
+        assignedRunway.releaseRunway();
+        gatePool.releaseGate(assignedGate);
+        FlightJournal.record(FlightJournal.Kind.TAKEOFF, null, planeNo, assignedGate.getGateNo(),
+                assignedRunway.getRunwayNo(), 0);
 
-        synchronized (atc) {
-            atc.notifyAll(); // Notify ATC that the plane has taken off
-        }
+        advancePhase(FlightPhase.DEPARTED);
+        atc.notifyStateChange(); // Notify ATC that the runway and gate are free
     }
 
     @Override
     public void run() {
+        ActorRunner.start(passengers, "Plane " + planeNo + "'s Passengers");
         requestLanding(); // Ask ATC
 
         land();
@@ -261,6 +370,10 @@ public class Airplane implements Runnable {
 
         requestTakeoff();
         takeoff();
+        if (afterTakeoff != null) {
+            afterTakeoff.run();
+        }
+        atc.planeDeparted();
         return;
     }
 }
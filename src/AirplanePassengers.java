@@ -23,58 +23,74 @@ public class AirplanePassengers implements Runnable {
     }
 
     // METHODS
+    private long cabinTime(boolean boarding) { // How long the doors are busy, from the boarding strategy if one is set
+        BoardingStrategy strategy = CabinBoarding.getStrategy();
+        if (strategy == null) {
+            return 2000;
+        }
+        if (passengerCount <= 0) {
+            return 0;
+        }
+        CabinBoarding cabin = CabinBoarding.acquire();
+        try {
+            long seed = CabinBoarding.flightSeed(airplane.getPlaneNo(), boarding);
+            if (!boarding) {
+                return cabin.disembark(passengerCount, seed);
+            }
+            long time = cabin.board(passengerCount, strategy, seed);
+            EventLog.log(EventType.PASSENGERS_BOARDING_TIME, strategy, airplane.getPlaneNo(), time,
+                    cabin.getSeatShuffles());
+            return time;
+        } finally {
+            CabinBoarding.release(cabin);
+        }
+    }
+
     public void disembarkAirplane() {
+        airplane.getTurnaround().start(TurnaroundStage.DISEMBARK);
+        passengerCount = airplane.getDisembarkingPassengers() >= 0 ? airplane.getDisembarkingPassengers()
+                : rand.nextInt(1, 50);
         try {
-            Thread.sleep(2000);
+            SimClock.get().sleep(cabinTime(false));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        passengerCount = rand.nextInt(1, 50);
-
-        System.out.printf("[%s]: %d Passengers are disembarking from Plane %d at Gate %d. \n",
-                Thread.currentThread().getName(),
-                passengerCount,
-                airplane.getPlaneNo(),
+        EventLog.log(EventType.PASSENGERS_DISEMBARKING, passengerCount, airplane.getPlaneNo(),
                 airplane.getAssignedGate().getGateNo());
 
+        FlightJournal.record(FlightJournal.Kind.DISEMBARK, null, airplane.getPlaneNo(),
+                airplane.getAssignedGate().getGateNo(), 0, passengerCount);
         atc.addDisembarkedPassengers(passengerCount);
-        airplane.setBoarded(false);
+        airplane.getTurnaround().complete(TurnaroundStage.DISEMBARK);
     }
 
     public void boardAirplane() {
         try {
-            Thread.sleep(2000);
+            airplane.getTurnaround().awaitReady(TurnaroundStage.BOARD); // Whatever BOARD depends on, not just us
+            airplane.getTurnaround().start(TurnaroundStage.BOARD);
+            passengerCount = airplane.getBoardingPassengers() >= 0 ? airplane.getBoardingPassengers()
+                    : rand.nextInt(1, 50);
+            SimClock.get().sleep(cabinTime(true));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        passengerCount = rand.nextInt(1, 50);
-
-        System.out.printf("[%s]: %d Passengers are boarding Plane %d at Gate %d. \n",
-                Thread.currentThread().getName(),
-                passengerCount,
-                airplane.getPlaneNo(),
+        EventLog.log(EventType.PASSENGERS_BOARDING, passengerCount, airplane.getPlaneNo(),
                 airplane.getAssignedGate().getGateNo());
 
+        FlightJournal.record(FlightJournal.Kind.BOARD, null, airplane.getPlaneNo(),
+                airplane.getAssignedGate().getGateNo(), 0, passengerCount);
         atc.addBoardedPassengers(passengerCount);
-        airplane.setBoarded(true);
-        synchronized (airplane) {
-            airplane.notifyAll(); // Notify the airplane that boarding is complete
-        }
+        airplane.getTurnaround().complete(TurnaroundStage.BOARD);
     }
 
     @Override
     public void run() {
-        synchronized (airplane) {
-            while (airplane.getAssignedGate() == null || !airplane.getAssignedGate().isOccupied()) {
-                try {
-                    airplane.wait();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-
-            }
+        try {
+            airplane.awaitDocked();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
         disembarkAirplane();
@@ -1,61 +1,340 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.Random;
 
 public class Airport {
+    // Defaults are the original setup: 6 planes (5th is emerg), 1 runway, 3 gates, 1 refuelling truck
+    private Long seed = null; // Same seed, same arrivals, so runs can be compared
+    private int airplaneCount = 6; // -1 keeps them coming until the process is stopped
+    private int runwayCount = 1;
+    private int gateCount = 3;
+    private int terminalCount = 1; // Gates are spread over terminals round-robin
+    private int truckCount = 1;
+    private int crewCount = -1; // Shared service crews, -1 means one per gate like the original dedicated crews
+    private boolean refuelBatching = false;
+    private long refuelMaxWaitMs = 5000;
+    private int maxArrivalGapMs = 2000;
+    private boolean virtualClock = false; // Sleeps cost no real time, a day of traffic runs in seconds
+    private boolean virtualThreads = false; // Planes, passengers and crews on virtual threads
+    private EventLog.Level logLevel = EventLog.Level.INFO;
+    private EventLog.Format logFormat = EventLog.Format.TEXT;
+    private String logFile = null; // Null logs text to stdout
+    private int logBufferSize = 8192; // Events, power of two
+    private String journalFile = null; // Binary FlightJournal for JournalReplay, off if null
+    private String scheduleFile = null; // CSV or binary FlightSchedule, null for the random traffic above
+    private BoardingStrategy boardingStrategy = null; // Per-passenger CabinBoarding, null for the fixed 2000 ms
+    private int metricsPort = -1; // Live MetricsServer on localhost, -1 is off and 0 picks a free port
+    private boolean gatePlanning = false; // Predictive GatePlanner instead of greedy free-gates-only
+    private long gatePlanningMaxHoldMs = GatePlanner.TAKEOFF_MS;
+    private boolean runwaySlots = false; // RunwayTimeline slot booking instead of one permit per runway
+    private long wakeStepMs = 500; // Wake turbulence separation per step, slots only
+    private long slotHorizonMs = GatePlanner.LANDING_TO_GATE_MS; // How far ahead ATC books slots
+    private String name = null; // Prefixes the ATC and plane thread names when several airports share a JVM
+    private SimClock clock = null; // Bound to this airport's threads only, run() then leaves the statics alone
+    private FlightSchedule schedule = null; // Instead of scheduleFile or random traffic
+    private String schedulingPolicy = null; // SchedulingPolicy.parse() name, null is the original FCFS
+    private long reportIntervalMs = 0; // Throughput and waits every interval of simulated time, 0 is off
+    private int reportWindow = 10; // Intervals in the rolling window the interval reports also show
 
-    public static void main(String[] args) {
-        Random rand = new Random();
-        int airplaneCount = 6;
+    // GETTERS & SETTERS
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
 
-        Runway runway = new Runway();
-        List<Airplane> runwayRequestsQueue = new ArrayList<>();
-        List<Airplane> refuelRequestQueue = new ArrayList<>();
+    public void setAirplaneCount(int airplaneCount) {
+        this.airplaneCount = airplaneCount;
+    }
 
-        Gate gate1 = new Gate(1);
-        Gate gate2 = new Gate(2);
-        Gate gate3 = new Gate(3);
+    public void setRunwayCount(int runwayCount) {
+        this.runwayCount = runwayCount;
+    }
 
-        Gate[] gates = { gate1, gate2, gate3 };
+    public void setGateCount(int gateCount) {
+        this.gateCount = gateCount;
+    }
 
-        ATC atc = new ATC(runway, runwayRequestsQueue, gates, airplaneCount);
-        Thread atcThread = new Thread(atc, "ATC");
-        atcThread.start();
+    public void setTerminalCount(int terminalCount) {
+        this.terminalCount = terminalCount;
+    }
 
-        RefuellingTruck refuellingTruck = new RefuellingTruck(refuelRequestQueue, gate1);
-        Thread refuellingTruckThread = new Thread(refuellingTruck, "Refuelling Truck");
-        refuellingTruckThread.start();
+    public void setTruckCount(int truckCount) {
+        this.truckCount = truckCount;
+    }
 
-        // Start 6 planes, 5th is emerg
-        for (int i = 1; i <= airplaneCount; i++) {
-            try {
-                Thread.sleep(rand.nextInt(2001)); // Random delay between 0 to 2 seconds
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+    public void setCrewCount(int crewCount) {
+        this.crewCount = crewCount;
+    }
+
+    public void setRefuelBatching(boolean refuelBatching) {
+        this.refuelBatching = refuelBatching;
+    }
+
+    public void setRefuelMaxWaitMs(long refuelMaxWaitMs) {
+        this.refuelMaxWaitMs = refuelMaxWaitMs;
+    }
+
+    public void setMaxArrivalGapMs(int maxArrivalGapMs) {
+        this.maxArrivalGapMs = maxArrivalGapMs;
+    }
+
+    public void setVirtualClock(boolean virtualClock) {
+        this.virtualClock = virtualClock;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public void setLogLevel(EventLog.Level logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    public void setLogFormat(EventLog.Format logFormat) {
+        this.logFormat = logFormat;
+    }
+
+    public void setLogFile(String logFile) {
+        this.logFile = logFile;
+    }
+
+    public void setLogBufferSize(int logBufferSize) {
+        this.logBufferSize = logBufferSize;
+    }
+
+    public void setJournalFile(String journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    public void setScheduleFile(String scheduleFile) {
+        this.scheduleFile = scheduleFile;
+    }
+
+    public void setBoardingStrategy(BoardingStrategy boardingStrategy) {
+        this.boardingStrategy = boardingStrategy;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    public void setGatePlanning(boolean gatePlanning) {
+        this.gatePlanning = gatePlanning;
+    }
+
+    public void setGatePlanningMaxHoldMs(long gatePlanningMaxHoldMs) {
+        this.gatePlanningMaxHoldMs = gatePlanningMaxHoldMs;
+    }
+
+    public void setRunwaySlots(boolean runwaySlots) {
+        this.runwaySlots = runwaySlots;
+    }
 
-            if (i == 5) {
-                new Thread(new Airplane(i, runway, runwayRequestsQueue, refuelRequestQueue, "Emergency Landing", atc),
-                        "Plane-" + i).start();
-            } else {
-                new Thread(new Airplane(i, runway, runwayRequestsQueue, refuelRequestQueue, "Landing", atc), "Plane-" + i)
-                        .start();
+    public void setWakeStepMs(long wakeStepMs) {
+        this.wakeStepMs = wakeStepMs;
+    }
+
+    public void setSlotHorizonMs(long slotHorizonMs) {
+        this.slotHorizonMs = slotHorizonMs;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setClock(SimClock clock) {
+        this.clock = clock;
+    }
+
+    public void setSchedule(FlightSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    public void setSchedulingPolicy(String schedulingPolicy) {
+        this.schedulingPolicy = schedulingPolicy;
+    }
+
+    public void setReportIntervalMs(long reportIntervalMs) {
+        this.reportIntervalMs = reportIntervalMs;
+    }
+
+    public void setReportWindow(int reportWindow) {
+        this.reportWindow = reportWindow;
+    }
+
+    // METHODS
+    public static Airport fromSystemProperties() { // e.g. java -Dairport.runways=2 -Dairport.clock=virtual Airport
+        Airport airport = new Airport();
+        airport.setSeed(Long.getLong("airport.seed"));
+        airport.setAirplaneCount(Integer.getInteger("airport.planes", airport.airplaneCount));
+        airport.setRunwayCount(Integer.getInteger("airport.runways", airport.runwayCount));
+        airport.setGateCount(Integer.getInteger("airport.gates", airport.gateCount));
+        airport.setTerminalCount(Integer.getInteger("airport.terminals", airport.terminalCount));
+        airport.setTruckCount(Integer.getInteger("airport.trucks", airport.truckCount));
+        airport.setCrewCount(Integer.getInteger("airport.crews", airport.crewCount));
+        airport.setRefuelBatching(Boolean.getBoolean("airport.refuelBatching"));
+        airport.setRefuelMaxWaitMs(Long.getLong("airport.refuelMaxWaitMs", airport.refuelMaxWaitMs));
+        airport.setMaxArrivalGapMs(Integer.getInteger("airport.arrivalGapMs", airport.maxArrivalGapMs));
+        airport.setVirtualClock(System.getProperty("airport.clock", "real").equalsIgnoreCase("virtual"));
+        airport.setVirtualThreads(System.getProperty("airport.threads", "platform").equalsIgnoreCase("virtual"));
+        airport.setLogLevel(EventLog.Level.valueOf(System.getProperty("airport.log.level", "INFO").toUpperCase()));
+        airport.setLogFormat(EventLog.Format.valueOf(System.getProperty("airport.log.format", "TEXT").toUpperCase()));
+        airport.setLogFile(System.getProperty("airport.log.file",
+                airport.logFormat == EventLog.Format.BINARY ? "events.bin" : null));
+        airport.setLogBufferSize(Integer.getInteger("airport.log.bufferSize", airport.logBufferSize));
+        airport.setJournalFile(System.getProperty("airport.journal"));
+        airport.setScheduleFile(System.getProperty("airport.schedule"));
+        airport.setBoardingStrategy(BoardingStrategy.parse(System.getProperty("airport.boarding")));
+        airport.setMetricsPort(Integer.getInteger("airport.metrics.port", airport.metricsPort));
+        airport.setGatePlanning(System.getProperty("airport.gates.policy", "greedy").equalsIgnoreCase("predictive"));
+        airport.setGatePlanningMaxHoldMs(Long.getLong("airport.gates.maxHoldMs", airport.gatePlanningMaxHoldMs));
+        airport.setSchedulingPolicy(System.getProperty("airport.atc.policy"));
+        airport.setRunwaySlots(Boolean.getBoolean("airport.runway.slots"));
+        airport.setWakeStepMs(Long.getLong("airport.runway.wakeMs", airport.wakeStepMs));
+        airport.setSlotHorizonMs(Long.getLong("airport.runway.horizonMs", airport.slotHorizonMs));
+        airport.setReportIntervalMs(Long.getLong("airport.report.intervalMs", airport.reportIntervalMs));
+        airport.setReportWindow(Integer.getInteger("airport.report.window", airport.reportWindow));
+        return airport;
+    }
+
+    public void configureProcess() { // The statics every airport in this JVM shares, run() does it unless in a network
+        ActorRunner.setMode(virtualThreads ? ActorRunner.Mode.VIRTUAL : ActorRunner.Mode.PLATFORM);
+        EventLog.setLevel(logLevel);
+        if (logFile != null) {
+            EventLog.install(EventLog.toFile(logFormat, logFile, logBufferSize));
+        } else if (logFormat != EventLog.Format.TEXT || logBufferSize != EventLog.get().getCapacity()) {
+            EventLog.install(new EventLog(logFormat, System.out, logBufferSize));
+        }
+        CabinBoarding.configure(boardingStrategy, seed);
+    }
+
+    public ATC run() { // Runs one whole simulation and returns the ATC so callers can read its statistics
+        if (journalFile != null && schedule == null && scheduleFile == null && airplaneCount < 0) {
+            // The journal keeps every segment mapped until it's closed, an endless run would grow it without bound
+            throw new IllegalArgumentException(
+                    "A flight journal can't be kept for an endless run (airport.planes < 0)");
+        }
+        Random rand = (seed != null) ? new Random(seed) : new Random();
+        FlightJournal journal = null;
+        if (clock != null) { // Part of an AirportNetwork, which has set up the process-wide state for all of us
+            SimClock.bind(clock);
+        } else {
+            SimClock.install(virtualClock ? new VirtualClock() : new RealTimeClock());
+            configureProcess();
+            journal = (journalFile != null) ? new FlightJournal(Path.of(journalFile)) : null;
+            FlightJournal.install(journal);
+        }
+
+        Runway[] runways = new Runway[runwayCount];
+        for (int i = 0; i < runwayCount; i++) {
+            runways[i] = new Runway(i + 1);
+            if (runwaySlots) {
+                runways[i].enableSlots(wakeStepMs);
             }
         }
+        RunwayRequestQueue runwayRequestsQueue = new RunwayRequestQueue();
 
-        try {
-            atcThread.join();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-            Thread.currentThread().interrupt();
+        Gate[] gates = new Gate[gateCount];
+        for (int i = 0; i < gateCount; i++) {
+            gates[i] = new Gate(i + 1, i % terminalCount + 1);
         }
+        GatePool gatePool = new GatePool(gates);
+        ServiceCrewPool crewPool = new ServiceCrewPool(gates, crewCount > 0 ? crewCount : gateCount);
+        crewPool.startCrews();
 
-        gate1.getServiceCrew().killMyself();
-        gate2.getServiceCrew().killMyself();
-        gate3.getServiceCrew().killMyself();
+        // Boarding time depends on the passenger counts now, so a seeded run needs seeded counts too
+        Random passengers = (boardingStrategy != null && seed != null) ? new Random(seed + 1) : null;
+        FlightSchedule schedule = (this.schedule != null) ? this.schedule
+                : (scheduleFile != null) ? FlightSchedule.open(Path.of(scheduleFile))
+                : new RandomFlightSchedule(rand, passengers, airplaneCount, maxArrivalGapMs);
+        String prefix = (name != null) ? name + " " : "";
+        ATC atc = new ATC(runways, runwayRequestsQueue, gatePool, (int) schedule.getFlightCount());
+        // ATC only looks again when a movement ends, so it has to be able to book past the longest separation
+        atc.setSlotHorizonMs(Math.max(slotHorizonMs, WakeCategory.MAX_STEPS * wakeStepMs));
+        atc.setSchedulingPolicy(SchedulingPolicy.parse(schedulingPolicy)); // A new one per run, policies keep state
+        atc.setIntervalReports(reportIntervalMs, reportWindow);
+        // Network airports finish on their own threads at once, so each report is collected and printed in one piece
+        ByteArrayOutputStream reportBuffer = (clock != null) ? new ByteArrayOutputStream() : null;
+        PrintStream report = (reportBuffer != null) ? new PrintStream(reportBuffer) : System.out;
+        atc.setReport(report);
+        if (gatePlanning) {
+            atc.setGatePlanner(new GatePlanner(gatePool, runwayCount, atc.getWaitingTimes(), gatePlanningMaxHoldMs));
+        }
+        RefuelDispatcher refuelDispatcher = new RefuelDispatcher(truckCount, gates[0], refuelBatching,
+                refuelMaxWaitMs);
+        atc.setRefuelDispatcher(refuelDispatcher);
+        Thread atcThread = ActorRunner.start(atc, prefix + "ATC");
+        refuelDispatcher.startFleet();
 
-        refuellingTruck.killMyself();
-        refuellingTruckThread.interrupt();
+        MetricsServer metrics = null;
+        if (metricsPort >= 0) {
+            metrics = new MetricsServer(metricsPort, atc, runwayRequestsQueue, runways, gatePool, refuelDispatcher,
+                    crewPool);
+            metrics.start();
+        }
 
+        // Start the planes as their arrival times come up, one flight read ahead at most
+        long openedAt = SimClock.get().now();
+        int planes = 0;
+        try {
+            try (schedule) {
+                while (schedule.hasNext()) { // A bad line or a truncated file throws here, halfway through the run
+                    ScheduledFlight flight = schedule.next();
+                    try {
+                        long untilArrival = flight.getArrivalTime() - (SimClock.get().now() - openedAt);
+                        SimClock.get().sleep(Math.max(0, untilArrival));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    int i = ++planes;
+                    FlightPhase phase = flight.isEmergency() ? FlightPhase.EMERGENCY_LANDING : FlightPhase.LANDING;
+                    Airplane airplane = new Airplane(i, runwayRequestsQueue, gatePool, refuelDispatcher, phase, atc);
+                    airplane.setTurnaround(flight);
+                    airplane.setAfterTakeoff(() -> schedule.departed(flight)); // May come after the schedule is closed
+                    if (terminalCount > 1) {
+                        airplane.setPreferredTerminal(i % terminalCount + 1);
+                    }
+                    atc.planeStarted();
+                    ActorRunner.start(airplane, prefix + "Plane-" + i);
+                }
+            } finally {
+                // Even if the schedule broke off, the ATC has to learn the count or it waits for planes that never come
+                atc.setTotalAirplanes(planes);
+                SimClock.get().actorFinished(); // Done feeding planes, the clock shouldn't wait on this thread any more
+            }
+        } finally {
+            // The planes already started still land and leave, then everything shuts down and any error goes on up
+            try {
+                atcThread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                Thread.currentThread().interrupt();
+            }
+
+            // ATC only returns once the airport is quiet, so crews and trucks are all idle and just log off
+            crewPool.shutdownCrews();
+            refuelDispatcher.shutdownFleet();
+
+            EventLog.flush();
+            crewPool.printStatistics(report);
+            refuelDispatcher.printStatistics(report);
+            if (reportBuffer != null) {
+                report.flush();
+                System.out.print(reportBuffer.toString()); // One call, PrintStream won't interleave another thread
+            }
+            if (metrics != null) {
+                metrics.stop();
+            }
+            if (journal != null) {
+                FlightJournal.install(null);
+                journal.close();
+            }
+        }
+        return atc;
+    }
+
+    public static void main(String[] args) {
+        fromSystemProperties().run();
     }
 }
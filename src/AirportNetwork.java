@@ -0,0 +1,149 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AirportNetwork {
+    // A regional network: several airports in one JVM, each with its own ATC, runways, gates, crews, trucks and
+    // VirtualClock, each driven by its own threads so they run on separate cores. Nothing is shared between
+    // airports except the bounded inbound queues flights are handed over through. A plane that takes off with
+    // legs left lands at another airport a flight time later. The WindowBarrier keeps the clocks within one
+    // window (the shortest flight time) of each other, so a handover can never arrive in an airport's past.
+    // e.g. java -Dnetwork.airports=8 -Dnetwork.flights=100 -Dairport.log.level=OFF AirportNetwork
+    static final long HOLD_MS = 1000; // En route hold before trying a full inbound queue again
+
+    private final Airport[] airports;
+    private final VirtualClock[] clocks;
+    private final NetworkArrivals[] arrivals;
+    private final WindowBarrier barrier;
+    private final ATC[] atcs;
+    private final int legs;
+    private final long minFlightMs;
+    private final long maxFlightMs;
+    private final long seed;
+
+    private final AtomicLong flightsLeft; // Until the last leg of every flight has taken off
+    private final LongAdder handoffs = new LongAdder();
+    private final LongAdder holds = new LongAdder();
+
+    // GETTERS & SETTERS
+    public int getLegs() {
+        return legs;
+    }
+
+    public boolean isFinished() {
+        return flightsLeft.get() == 0;
+    }
+
+    public long getMovements() { // After the run
+        long movements = 0;
+        for (ATC atc : atcs) {
+            movements += atc.getGrantCount();
+        }
+        return movements;
+    }
+
+    public long getSimulatedTime() {
+        long time = 0;
+        for (VirtualClock clock : clocks) {
+            time = Math.max(time, clock.now());
+        }
+        return time;
+    }
+
+    // CONSTRUCTOR
+    public AirportNetwork(Airport[] airports, int flightsPerAirport, int legs, int maxArrivalGapMs, long minFlightMs,
+            long maxFlightMs, int queueCapacity, long seed) {
+        this.airports = airports;
+        this.legs = legs;
+        this.minFlightMs = minFlightMs;
+        this.maxFlightMs = maxFlightMs;
+        this.seed = seed;
+        this.flightsLeft = new AtomicLong((long) airports.length * flightsPerAirport);
+        this.clocks = new VirtualClock[airports.length];
+        this.arrivals = new NetworkArrivals[airports.length];
+        this.atcs = new ATC[airports.length];
+        for (int i = 0; i < airports.length; i++) {
+            clocks[i] = new VirtualClock();
+            FlightSchedule origin = new RandomFlightSchedule(new Random(seed + i), null, flightsPerAirport,
+                    maxArrivalGapMs);
+            arrivals[i] = new NetworkArrivals(this, i, clocks[i], origin, (long) i * flightsPerAirport,
+                    queueCapacity);
+            airports[i].setName("A" + (i + 1));
+            airports[i].setClock(clocks[i]);
+            airports[i].setSchedule(arrivals[i]);
+        }
+        this.barrier = new WindowBarrier(clocks, minFlightMs);
+    }
+
+    // METHODS
+    public static AirportNetwork fromSystemProperties() { // Every airport gets the -Dairport.* settings
+        int count = Integer.getInteger("network.airports", 4);
+        Airport[] airports = new Airport[count];
+        for (int i = 0; i < count; i++) {
+            airports[i] = Airport.fromSystemProperties();
+            airports[i].setVirtualClock(true); // Airports only stay in step on virtual time
+            airports[i].setJournalFile(null); // One journal per JVM
+            airports[i].setMetricsPort(-1);
+        }
+        return new AirportNetwork(airports, Integer.getInteger("network.flights", 50),
+                Integer.getInteger("network.legs", 3), Integer.getInteger("network.gapMs", 2000),
+                Long.getLong("network.flightMs", 20000), Long.getLong("network.flightMaxMs", 40000),
+                Integer.getInteger("network.queue", 64), Long.getLong("airport.seed", System.nanoTime()));
+    }
+
+    void departed(int from, NetworkFlight flight) { // The plane's thread, on the origin airport's clock
+        if (flight.getLegsLeft() <= 1) {
+            flightsLeft.decrementAndGet();
+            return;
+        }
+        long mixed = (seed + flight.getFlightNo() * 0x9E3779B97F4A7C15L + flight.getLegsLeft())
+                * 0xBF58476D1CE4E5B9L;
+        mixed ^= mixed >>> 31;
+        int to = airports.length == 1 ? from
+                : (from + 1 + (int) Math.floorMod(mixed, (long) airports.length - 1)) % airports.length;
+        long flightTime = minFlightMs + Math.floorMod(mixed >>> 16, maxFlightMs - minFlightMs + 1);
+        try {
+            while (!arrivals[to].offer(flight.nextLeg(SimClock.get().now() + flightTime))) {
+                holds.increment(); // Destination is backed up, it drains its queue at least once a window
+                SimClock.get().sleep(HOLD_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        handoffs.increment();
+    }
+
+    public void run() {
+        long start = System.nanoTime();
+        airports[0].configureProcess(); // Once for all of them, the airports only bind their own clocks
+        barrier.start();
+        Thread[] threads = new Thread[airports.length];
+        for (int i = 0; i < airports.length; i++) {
+            int airport = i;
+            threads[i] = new Thread(() -> atcs[airport] = airports[airport].run(), "Airport-" + (i + 1));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                Thread.currentThread().interrupt();
+            }
+        }
+        barrier.stop();
+        double wallMs = (System.nanoTime() - start) / 1e6;
+
+        System.out.println("-------------------------------- Network Statistics --------------------------------");
+        System.out.printf("[%s]: %d airports, %d movements, %d handoffs (%d en route holds for a full queue)\n",
+                Thread.currentThread().getName(), airports.length, getMovements(), handoffs.sum(), holds.sum());
+        System.out.printf("[%s]: %d ms simulated in %d windows of %d ms, %.0f ms wall, %.0f movements/s\n",
+                Thread.currentThread().getName(), getSimulatedTime(), barrier.getWindows(), minFlightMs, wallMs,
+                getMovements() / (wallMs / 1000));
+    }
+
+    public static void main(String[] args) {
+        fromSystemProperties().run();
+    }
+}
@@ -0,0 +1,26 @@
+public class AlternatingPolicy implements SchedulingPolicy {
+    // Arrival, departure, arrival... whenever both lanes have someone waiting. Keeps a burst of arrivals from
+    // holding every departure (and so every gate) behind it.
+    private boolean lastWasLanding = false;
+
+    // METHODS
+    @Override
+    public Airplane select(RunwayRequestQueue queue) {
+        Airplane landing = queue.peekLanding();
+        Airplane takeoff = queue.peekTakeoff();
+        if (landing == null || takeoff == null) {
+            return landing != null ? landing : takeoff;
+        }
+        return lastWasLanding ? takeoff : landing;
+    }
+
+    @Override
+    public void granted(Airplane airplane) {
+        lastWasLanding = airplane.getPhase() != FlightPhase.TAKEOFF;
+    }
+
+    @Override
+    public String toString() {
+        return "alternating";
+    }
+}
@@ -0,0 +1,87 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+public class BinaryFlightSchedule extends FlightSchedule {
+    // Header: magic, version, flight count. Then one fixed 25-byte record per flight:
+    // arrival (long), emergency (byte), passengers off, passengers on, service ms, refuel ms (ints)
+    private final Path path;
+    private final DataInputStream in;
+    private final long flightCount;
+    private long flightsRead = 0;
+    private long lastArrival = 0;
+
+    // GETTERS & SETTERS
+    @Override
+    public long getFlightCount() {
+        return flightCount;
+    }
+
+    // CONSTRUCTOR
+    public BinaryFlightSchedule(Path path) throws IOException {
+        this.path = path;
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        if (in.readInt() != BINARY_MAGIC || in.readInt() != BINARY_VERSION) {
+            in.close();
+            throw new IOException(path + " is not a binary flight schedule");
+        }
+        this.flightCount = in.readLong();
+    }
+
+    // METHODS
+    @Override
+    public boolean hasNext() {
+        return flightsRead < flightCount;
+    }
+
+    @Override
+    public ScheduledFlight next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            ScheduledFlight flight = read(in);
+            if (flight.getArrivalTime() < lastArrival) { // Airport starts planes in file order, like the CSV reader
+                throw new IllegalArgumentException(path + " flight " + (flightsRead + 1)
+                        + ": arrivals must be in order, " + flight.getArrivalTime() + " < " + lastArrival);
+            }
+            lastArrival = flight.getArrivalTime();
+            flightsRead++;
+            return flight;
+        } catch (EOFException e) {
+            throw new IllegalStateException(path + " ends after " + flightsRead + " of " + flightCount + " flights");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read flight schedule " + path, e);
+        }
+    }
+
+    static ScheduledFlight read(DataInputStream in) throws IOException {
+        long arrival = in.readLong();
+        boolean emergency = in.readByte() != 0;
+        return new ScheduledFlight(arrival, emergency, in.readInt(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    static void write(DataOutputStream out, ScheduledFlight flight) throws IOException {
+        out.writeLong(flight.getArrivalTime());
+        out.writeByte(flight.isEmergency() ? 1 : 0);
+        out.writeInt(flight.getDisembarkingPassengers());
+        out.writeInt(flight.getBoardingPassengers());
+        out.writeInt(flight.getServiceTimeMs());
+        out.writeInt(flight.getRefuelTimeMs());
+    }
+
+    @Override
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
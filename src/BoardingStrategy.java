@@ -0,0 +1,51 @@
+public enum BoardingStrategy {
+    // Which order the gate calls passengers in. Each passenger gets a group, lower groups board first and the
+    // order inside a group stays random.
+    BACK_TO_FRONT {
+        @Override
+        int groups(int rows) {
+            return rows;
+        }
+
+        @Override
+        int group(int row, int rows) {
+            return rows - 1 - row;
+        }
+    },
+    ZONE { // Back to front in ZONES blocks of rows, what most airlines actually do
+        @Override
+        int groups(int rows) {
+            return Math.min(ZONES, rows);
+        }
+
+        @Override
+        int group(int row, int rows) {
+            return (rows - 1 - row) * groups(rows) / rows;
+        }
+    },
+    RANDOM { // Free seating, everyone at once
+        @Override
+        int groups(int rows) {
+            return 1;
+        }
+
+        @Override
+        int group(int row, int rows) {
+            return 0;
+        }
+    };
+
+    static final int ZONES = 4;
+
+    // METHODS
+    abstract int groups(int rows);
+
+    abstract int group(int row, int rows);
+
+    public static BoardingStrategy parse(String name) { // "back-to-front", "zone", "random", null or "fixed" is off
+        if (name == null || name.equalsIgnoreCase("fixed")) {
+            return null;
+        }
+        return valueOf(name.trim().replace('-', '_').toUpperCase());
+    }
+}
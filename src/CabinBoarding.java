@@ -0,0 +1,210 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class CabinBoarding {
+    // Boards or empties one cabin passenger by passenger. Passengers are just indexes into flat int arrays, no
+    // object or thread per passenger, and engines are pooled and their arrays reused so a whole day of flights
+    // allocates next to nothing. Single aisle model: a passenger walks down the aisle row by row, can't pass
+    // whoever is stowing in front of them, and has to get the already seated people between the aisle and their
+    // seat to stand up. Times are in simulated ms and compressed like the rest of the simulation's timings.
+    static final int NARROW_BODY_ACROSS = 6; // 3-3
+    static final int WIDE_BODY_ACROSS = 10; // 3-4-3, two aisles but each half behaves like its own single aisle
+    static final int WIDE_BODY_SEATS = 220; // Cabins bigger than this are wide bodies
+    static final long DOOR_MS = 8; // Between two passengers stepping through the door
+    static final long WALK_MS_PER_ROW = 4;
+    static final long STOW_MS = 30; // Plus up to as much again, some have more luggage than others
+    static final long SEAT_SHUFFLE_MS = 12; // Per seated passenger who has to stand up to let someone in
+    static final long RETRIEVE_MS = 20; // Getting the luggage back out when disembarking, plus up to as much again
+
+    private static final int POOL_SIZE = 64;
+    private static final AtomicReferenceArray<CabinBoarding> POOL = new AtomicReferenceArray<>(POOL_SIZE);
+
+    private static volatile BoardingStrategy strategy = null; // Null keeps the old fixed 2000 ms
+    private static volatile long seed = System.nanoTime();
+
+    // One slot per passenger, grown when a bigger cabin comes along and never shrunk
+    private int[] seat = new int[0]; // row * across + column
+    private int[] group = new int[0];
+    private int[] order = new int[0]; // Passenger indexes in the order they go through the door
+    private int[] groupStart = new int[0]; // Counting sort buckets
+
+    // One slot per row
+    private long[] aisleFreeAt = new long[0]; // When the next passenger may step into this row's aisle
+    private int[] seated = new int[0]; // Bit per column
+
+    private long random; // xorshift state, reseeded per flight so a seed gives the same cabin every run
+    private int across;
+    private int rows;
+    private int seatShuffles;
+
+    // GETTERS & SETTERS
+    public static BoardingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public static boolean isEnabled() {
+        return strategy != null;
+    }
+
+    public static void configure(BoardingStrategy strategy, Long seed) {
+        CabinBoarding.strategy = strategy;
+        CabinBoarding.seed = (seed != null) ? seed : System.nanoTime();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsAcross() {
+        return across;
+    }
+
+    public int getSeatShuffles() { // Of the last boarding
+        return seatShuffles;
+    }
+
+    // METHODS
+    public static CabinBoarding acquire() {
+        for (int i = 0; i < POOL_SIZE; i++) {
+            CabinBoarding cabin = POOL.get(i);
+            if (cabin != null && POOL.compareAndSet(i, cabin, null)) {
+                return cabin;
+            }
+        }
+        return new CabinBoarding(); // Pool empty, only until the first flights hand theirs back
+    }
+
+    public static void release(CabinBoarding cabin) {
+        for (int i = 0; i < POOL_SIZE; i++) {
+            if (POOL.get(i) == null && POOL.compareAndSet(i, null, cabin)) {
+                return;
+            }
+        }
+        // Pool full, let this one go
+    }
+
+    public long board(int passengers, BoardingStrategy strategy, long flightSeed) { // Door open to last one seated
+        seatPassengers(passengers, flightSeed);
+        for (int p = 0; p < passengers; p++) {
+            group[p] = strategy.group(seat[p] / across, rows);
+        }
+        sortByGroup(passengers, strategy.groups(rows));
+
+        long door = 0;
+        long last = 0;
+        for (int i = 0; i < passengers; i++) {
+            int p = order[i];
+            int row = seat[p] / across;
+            int column = seat[p] % across;
+
+            long t = Math.max(door, aisleFreeAt[0]); // Steps into the first row's aisle
+            door = t + DOOR_MS;
+            for (int r = 0; r < row; r++) { // Queue down the aisle, a row stays blocked until we get into the next
+                t = Math.max(t + WALK_MS_PER_ROW, aisleFreeAt[r + 1]);
+                aisleFreeAt[r] = t;
+            }
+
+            int blockers = Integer.bitCount(seated[row] & between(column));
+            seatShuffles += blockers;
+            long done = t + STOW_MS + nextInt((int) STOW_MS + 1) + blockers * SEAT_SHUFFLE_MS;
+            aisleFreeAt[row] = done; // Nobody gets past until the luggage is in and they're seated
+            seated[row] |= 1 << column;
+            last = Math.max(last, done);
+        }
+        return last;
+    }
+
+    public long disembark(int passengers, long flightSeed) { // Door open to last one off, front rows go first
+        seatPassengers(passengers, flightSeed);
+        for (int p = 0; p < passengers; p++) {
+            group[p] = seat[p] / across;
+        }
+        sortByGroup(passengers, rows);
+
+        long door = 0;
+        for (int i = 0; i < passengers; i++) {
+            int p = order[i];
+            int row = seat[p] / across;
+            long t = RETRIEVE_MS + nextInt((int) RETRIEVE_MS + 1); // Everyone stands up at once
+            t = Math.max(t, aisleFreeAt[row]);
+            for (int r = row; r > 0; r--) { // Up the aisle behind the rows in front
+                t = Math.max(t + WALK_MS_PER_ROW, aisleFreeAt[r - 1]);
+                aisleFreeAt[r] = t;
+            }
+            t = Math.max(t + WALK_MS_PER_ROW, door); // Out of the door
+            aisleFreeAt[0] = t;
+            door = t + DOOR_MS;
+        }
+        return door;
+    }
+
+    private void seatPassengers(int passengers, long flightSeed) { // Random distinct seats in a full-ish cabin
+        across = passengers > WIDE_BODY_SEATS ? WIDE_BODY_ACROSS : NARROW_BODY_ACROSS;
+        rows = Math.max(1, (passengers + across - 1) / across);
+        int seats = rows * across;
+        ensureCapacity(seats, rows);
+        random = flightSeed != 0 ? flightSeed : 1;
+        seatShuffles = 0;
+        for (int r = 0; r < rows; r++) {
+            aisleFreeAt[r] = 0;
+            seated[r] = 0;
+        }
+
+        for (int s = 0; s < seats; s++) {
+            seat[s] = s;
+        }
+        for (int p = 0; p < passengers; p++) { // Partial Fisher-Yates, passenger p also arrives p-th at the gate
+            int pick = p + nextInt(seats - p);
+            int swap = seat[p];
+            seat[p] = seat[pick];
+            seat[pick] = swap;
+        }
+    }
+
+    private void sortByGroup(int passengers, int groups) { // Stable, keeps the random order inside a group
+        for (int g = 0; g <= groups; g++) {
+            groupStart[g] = 0;
+        }
+        for (int p = 0; p < passengers; p++) {
+            groupStart[group[p] + 1]++;
+        }
+        for (int g = 0; g < groups; g++) {
+            groupStart[g + 1] += groupStart[g];
+        }
+        for (int p = 0; p < passengers; p++) {
+            order[groupStart[group[p]]++] = p;
+        }
+    }
+
+    private int between(int column) { // Columns between this seat and the aisle on its side of the cabin
+        int half = across / 2;
+        if (column < half) {
+            return ((1 << half) - 1) & ~((1 << (column + 1)) - 1);
+        }
+        return ((1 << column) - 1) & ~((1 << half) - 1);
+    }
+
+    private void ensureCapacity(int seats, int rows) {
+        if (seat.length < seats) {
+            seat = new int[seats];
+            group = new int[seats];
+            order = new int[seats];
+        }
+        if (groupStart.length < rows + 1) {
+            groupStart = new int[rows + 1];
+            aisleFreeAt = new long[rows];
+            seated = new int[rows];
+        }
+    }
+
+    private int nextInt(int bound) {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) ((random >>> 33) % bound);
+    }
+
+    public static long flightSeed(int planeNo, boolean boarding) {
+        long mixed = (seed + planeNo * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        return boarding ? ~mixed : mixed;
+    }
+}
@@ -0,0 +1,94 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+public class CsvFlightSchedule extends FlightSchedule {
+    // arrival_ms,emergency,passengers_off,passengers_on,service_ms,refuel_ms
+    // Only the arrival is required. Blank lines, # comments and the header line are skipped.
+    static final String HEADER = "arrival_ms,emergency,passengers_off,passengers_on,service_ms,refuel_ms";
+
+    private final Path path;
+    private final BufferedReader reader;
+    private ScheduledFlight next; // Read ahead by one line so hasNext() can answer
+    private long lineNo = 0;
+    private long lastArrival = 0;
+
+    // CONSTRUCTOR
+    public CsvFlightSchedule(Path path) throws IOException {
+        this.path = path;
+        this.reader = Files.newBufferedReader(path);
+        this.next = readNext();
+    }
+
+    // METHODS
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public ScheduledFlight next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        ScheduledFlight flight = next;
+        next = readNext();
+        return flight;
+    }
+
+    private ScheduledFlight readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("arrival")) {
+                    continue;
+                }
+                return parse(line);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read flight schedule " + path, e);
+        }
+    }
+
+    private ScheduledFlight parse(String line) {
+        String[] fields = line.split(",");
+        try {
+            long arrival = Long.parseLong(fields[0].trim());
+            if (arrival < lastArrival) {
+                throw new IllegalArgumentException("arrivals must be in order, " + arrival + " < " + lastArrival);
+            }
+            lastArrival = arrival;
+            String emergency = field(fields, 1, "0");
+            return new ScheduledFlight(arrival,
+                    emergency.equals("1") || emergency.equalsIgnoreCase("true") || emergency.equalsIgnoreCase("y"),
+                    Integer.parseInt(field(fields, 2, "-1")),
+                    Integer.parseInt(field(fields, 3, "-1")),
+                    Integer.parseInt(field(fields, 4, String.valueOf(ScheduledFlight.DEFAULT_SERVICE_MS))),
+                    Integer.parseInt(field(fields, 5, String.valueOf(ScheduledFlight.DEFAULT_REFUEL_MS))));
+        } catch (IllegalArgumentException e) { // NumberFormatException included
+            throw new IllegalArgumentException(path + " line " + lineNo + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String field(String[] fields, int index, String missing) {
+        if (index >= fields.length || fields[index].trim().isEmpty()) {
+            return missing;
+        }
+        return fields[index].trim();
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,425 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class EventLog {
+    // Actors don't printf any more, they claim a slot in a ring of preallocated events, fill in the numbers and
+    // move on. One consumer thread does all the formatting and I/O, so stdout's lock is only ever taken by it.
+    public enum Level {
+        DEBUG, INFO, WARN, OFF
+    }
+
+    public enum Format {
+        TEXT, // Same lines the actors used to print
+        BINARY // Compact records with sim timestamps, turn back into text with: java EventLog <file>
+    }
+
+    private static final int BINARY_MAGIC = 0x41544345; // "ATCE"
+    private static final int BINARY_VERSION = 1;
+    private static final int STRING_DEFINITION = 0xFF; // Record tag, anything lower is an EventType ordinal
+    private static final long IDLE_PARK_NANOS = 10_000_000L; // Upper bound only, producers unpark the consumer
+
+    private static volatile EventLog current = new EventLog(Format.TEXT, System.out, 8192);
+    private static volatile Level level = Level.INFO;
+
+    static {
+        // Whatever is still in the ring when main returns gets written before the JVM goes
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::flush, "Event Log Flush"));
+    }
+
+    private static class Slot {
+        private EventType type;
+        private String thread;
+        private long time;
+        private final Object[] refs = new Object[2];
+        private final long[] values = new long[3];
+    }
+
+    private final Format format;
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(0); // Next sequence a producer will claim
+    private final AtomicLongArray published; // Sequence last published in each slot, -1 if never
+    private volatile long consumed = 0; // Next sequence the consumer reads, everything below it is free again
+    private volatile long flushed = 0; // Everything below this has reached the output stream
+    private volatile boolean consumerParked = false;
+    private volatile boolean running = true;
+    private final Thread consumer;
+
+    // Consumer side only
+    private final Writer textOut;
+    private final DataOutputStream binaryOut;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long lastTime = 0;
+
+    // GETTERS & SETTERS
+    public static EventLog get() {
+        return current;
+    }
+
+    public static void install(EventLog log) { // Drains and closes whatever log was installed before
+        EventLog previous = current;
+        current = log;
+        previous.close();
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static boolean isEnabled(EventType type) { // Guard for callers that have to build a costly argument
+        return type.getLevel().compareTo(level) >= 0;
+    }
+
+    // CONSTRUCTOR
+    public EventLog(Format format, OutputStream out, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event log capacity must be a power of two: " + capacity);
+        }
+        this.format = format;
+        this.ring = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+
+        if (format == Format.TEXT) {
+            this.textOut = new BufferedWriter(new OutputStreamWriter(out), 1 << 16);
+            this.binaryOut = null;
+        } else {
+            this.textOut = null;
+            this.binaryOut = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+            writeBinaryHeader();
+        }
+
+        // Not started through ActorRunner on purpose: it never sleeps on the SimClock, so a virtual clock must
+        // neither wait for it nor count it as an actor.
+        this.consumer = new Thread(this::consume, "Event Log");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public static EventLog toFile(Format format, String path, int capacity) {
+        try {
+            return new EventLog(format, new FileOutputStream(path), capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open event log " + path, e);
+        }
+    }
+
+    // METHODS
+    public static void log(EventType type) {
+        if (isEnabled(type)) {
+            current.publish(type, null, null, 0, 0, 0);
+        }
+    }
+
+    public static void log(EventType type, long a) {
+        if (isEnabled(type)) {
+            current.publish(type, null, null, a, 0, 0);
+        }
+    }
+
+    public static void log(EventType type, long a, long b) {
+        if (isEnabled(type)) {
+            current.publish(type, null, null, a, b, 0);
+        }
+    }
+
+    public static void log(EventType type, long a, long b, long c) {
+        if (isEnabled(type)) {
+            current.publish(type, null, null, a, b, c);
+        }
+    }
+
+    public static void log(EventType type, Object ref, long a) {
+        if (isEnabled(type)) {
+            current.publish(type, ref, null, a, 0, 0);
+        }
+    }
+
+    public static void log(EventType type, Object ref, long a, long b) {
+        if (isEnabled(type)) {
+            current.publish(type, ref, null, a, b, 0);
+        }
+    }
+
+    public static void log(EventType type, Object ref, long a, long b, long c) {
+        if (isEnabled(type)) {
+            current.publish(type, ref, null, a, b, c);
+        }
+    }
+
+    public static void log(EventType type, Object ref1, Object ref2) {
+        if (isEnabled(type)) {
+            current.publish(type, ref1, ref2, 0, 0, 0);
+        }
+    }
+
+    public static void flush() { // Blocks until everything logged so far is written out
+        current.drain();
+    }
+
+    private void publish(EventType type, Object ref1, Object ref2, long a, long b, long c) {
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= ring.length) { // Ring is full, back off until the consumer catches up
+            if (!consumer.isAlive()) {
+                return; // Log was closed under us, nobody will ever read this
+            }
+            LockSupport.unpark(consumer);
+            Thread.yield();
+        }
+
+        Slot slot = ring[(int) (sequence & mask)];
+        slot.type = type;
+        slot.thread = Thread.currentThread().getName();
+        slot.time = SimClock.get().now();
+        slot.refs[0] = ref1;
+        slot.refs[1] = ref2;
+        slot.values[0] = a;
+        slot.values[1] = b;
+        slot.values[2] = c;
+        published.set((int) (sequence & mask), sequence); // Volatile write, the consumer reads the slot after this
+
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        long sequence = consumed;
+        while (true) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) == sequence) {
+                Slot slot = ring[index];
+                write(slot);
+                slot.refs[0] = null; // Don't keep planes or queue dumps alive from the ring
+                slot.refs[1] = null;
+                consumed = ++sequence;
+                continue;
+            }
+
+            // Nothing to read, good moment to push what we have to the output
+            flushOutput();
+            flushed = sequence;
+            if (!running) {
+                return;
+            }
+            consumerParked = true;
+            if (published.get(index) != sequence && running) { // Re-check, a producer may have missed the flag
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            consumerParked = false;
+        }
+    }
+
+    private void drain() {
+        long target = claimed.get();
+        while (flushed < target && consumer.isAlive()) {
+            LockSupport.unpark(consumer);
+            Thread.yield();
+        }
+    }
+
+    public void close() {
+        drain();
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Slot slot) {
+        try {
+            if (format == Format.TEXT) {
+                line.setLength(0);
+                slot.type.format(line, slot.thread, slot.refs, slot.values);
+                line.append('\n');
+                textOut.append(line);
+            } else {
+                writeBinary(slot);
+            }
+        } catch (IOException e) {
+            running = false; // Losing the log shouldn't take the simulation down with it
+            e.printStackTrace();
+        }
+    }
+
+    private void flushOutput() {
+        try {
+            if (textOut != null) {
+                textOut.flush();
+            } else {
+                binaryOut.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Binary layout: header (magic, version, EventType names so old files survive new event types), then records.
+    // A record is a tag byte, either a string definition (id, UTF) or an event: type ordinal, time delta, thread
+    // string id, one string id per ref and one zig-zag varint per value.
+    private void writeBinaryHeader() {
+        try {
+            binaryOut.writeInt(BINARY_MAGIC);
+            binaryOut.writeByte(BINARY_VERSION);
+            binaryOut.writeByte(EventType.values().length);
+            for (EventType type : EventType.values()) {
+                binaryOut.writeUTF(type.name());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeBinary(Slot slot) throws IOException {
+        int threadId = stringId(slot.thread);
+        int[] refIds = null;
+        if (slot.type.getRefCount() > 0) {
+            refIds = new int[slot.type.getRefCount()];
+            for (int i = 0; i < refIds.length; i++) {
+                refIds[i] = stringId(String.valueOf(slot.refs[i]));
+            }
+        }
+
+        binaryOut.writeByte(slot.type.ordinal());
+        writeVarLong(binaryOut, zigZag(slot.time - lastTime));
+        lastTime = slot.time;
+        writeVarLong(binaryOut, threadId);
+        for (int i = 0; refIds != null && i < refIds.length; i++) {
+            writeVarLong(binaryOut, refIds[i]);
+        }
+        for (int i = 0; i < slot.type.getValueCount(); i++) {
+            writeVarLong(binaryOut, zigZag(slot.values[i]));
+        }
+    }
+
+    private int stringId(String s) throws IOException { // Thread names and phases repeat, send each one once
+        Integer id = stringIds.get(s);
+        if (id == null) {
+            id = stringIds.size();
+            stringIds.put(s, id);
+            binaryOut.writeByte(STRING_DEFINITION);
+            writeVarLong(binaryOut, id);
+            binaryOut.writeUTF(s);
+        }
+        return id;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    public static void decode(InputStream input, PrintStream out) throws IOException { // Binary log -> text lines
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != BINARY_MAGIC || in.readUnsignedByte() != BINARY_VERSION) {
+            throw new IOException("Not an event log");
+        }
+        EventType[] types = new EventType[in.readUnsignedByte()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = EventType.valueOf(in.readUTF());
+        }
+
+        List<String> strings = new ArrayList<>();
+        StringBuilder sb = new StringBuilder(256);
+        Object[] refs = new Object[2];
+        long[] values = new long[3];
+        long time = 0;
+        while (true) {
+            int tag;
+            try {
+                tag = in.readUnsignedByte();
+            } catch (EOFException e) {
+                return;
+            }
+            if (tag == STRING_DEFINITION) {
+                readVarLong(in); // Ids are handed out in order
+                strings.add(in.readUTF());
+                continue;
+            }
+
+            EventType type = types[tag];
+            time += unZigZag(readVarLong(in));
+            String thread = strings.get((int) readVarLong(in));
+            for (int i = 0; i < type.getRefCount(); i++) {
+                refs[i] = strings.get((int) readVarLong(in));
+            }
+            for (int i = 0; i < type.getValueCount(); i++) {
+                values[i] = unZigZag(readVarLong(in));
+            }
+            sb.setLength(0);
+            sb.append(time).append(' ');
+            type.format(sb, thread, refs, values);
+            out.println(sb);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java EventLog <binary event log>");
+            return;
+        }
+        try (InputStream in = new FileInputStream(args[0])) {
+            decode(in, System.out);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public enum EventType {
+    // Every line the actors log. Templates: %t is the actor's thread name, %s the object args, %d the number args,
+    // always in that order. The text is exactly what the old printf calls printed, except the CREW_ lines: crews
+    // are pooled in ServiceCrewPool and no longer belong to a gate, so the gate moved after the plane and the
+    // thread name says which crew it is.
+    PLANE_EMERGENCY_REQUEST(EventLog.Level.WARN, "[%t]: Plane %d requesting EMERGENCY landing!"),
+    PLANE_LANDING_REQUEST(EventLog.Level.INFO, "[%t]: Plane %d requesting to land."),
+    PLANE_LANDED(EventLog.Level.INFO, "[%t]: Plane %d has landed."),
+    PLANE_COASTING(EventLog.Level.INFO, "[%t]: Plane %d is coasting to Gate %d."),
+    PLANE_DOCKED(EventLog.Level.INFO, "[%t]: Plane %d has docked at Gate %d."),
+    PLANE_REFUEL_REQUESTED(EventLog.Level.INFO, "[%t]: Plane %d at Gate %d has requested refuelling. "),
+    PLANE_AWAITING_TURNAROUND(EventLog.Level.INFO,
+            "[%t]: Plane %d is waiting until it is ready for takeoff. (Service, Refuel, Boarding)"),
+    PLANE_READY(EventLog.Level.INFO, "[%t]: Plane %d is ready for takeoff!"),
+    PLANE_TAKEOFF_REQUEST(EventLog.Level.INFO, "[%t]: Plane %d requesting to take off"),
+    PLANE_TOOK_OFF(EventLog.Level.INFO, "[%t]: Plane %d has taken off from Gate %d."),
+
+    ATC_OPERATIONAL(EventLog.Level.INFO,
+            "----------------------------------- ATC is now operational -----------------------------------"),
+    ATC_EMERGENCY_DETECTED(EventLog.Level.WARN,
+            "[%t]: EMERGENCY LANDING DETECTED in request queue. Plane %d will be the next plane to land."),
+    ATC_QUEUE_DUMP(EventLog.Level.DEBUG, "[%t]: QUEUE DUMP (%s) — %s"),
+    ATC_REQUEST_QUEUED(EventLog.Level.INFO,
+            "[%t]: Permission denied for Plane %d. Other planes are being processed - moved to waiting queue."),
+    ATC_TAKEOFF_PRIORITY(EventLog.Level.INFO,
+            "[%t]: No free gates available currently. Temporarily prioritizing takeoffs."),
+    ATC_GRANTED_WITH_GATE(EventLog.Level.INFO,
+            "[%t]: %s Permission Granted to Plane %d. Assigned Gate: %d, Runway: %d"),
+    ATC_GRANTED(EventLog.Level.INFO, "[%t]: %s Permission Granted to Plane %d. Assigned Runway: %d"),
+    ATC_DENIED(EventLog.Level.INFO,
+            "[%t]: %s Permission Denied to Plane %d. Next in queue, but either the runway or gates are not available."),
+
+    TRUCK_MOVING(EventLog.Level.INFO, "[%t @ Gate %d]: Refuelling truck is moving to Gate %d to refuel Plane %d. "),
+    TRUCK_ARRIVED(EventLog.Level.INFO, "[%t @ Gate %d]: Refuelling truck is at Gate %d. Proceeding with refuelling."),
+    TRUCK_REFUELLING(EventLog.Level.INFO, "[%t @ Gate %d]: Refuelling truck is refuelling Plane %d at Gate %d. "),
+    TRUCK_REFUELLED(EventLog.Level.INFO,
+            "[%t @ Gate %d]: Refuelling truck has finished refuelling Plane %d at Gate %d. "),
+    TRUCK_BATCH(EventLog.Level.INFO, "[%t @ Gate %d]: Refuelling truck took a batch of %d planes."),
+    TRUCK_TERMINATING(EventLog.Level.INFO, "%t is terminating."),
+
+    CREW_SERVICING(EventLog.Level.INFO, "[%t]: Service crew is servicing Plane %d at Gate %d. "),
+    CREW_SERVICED(EventLog.Level.INFO, "[%t]: Service crew has finished servicing Plane %d at Gate %d. "),
+    CREW_TERMINATING(EventLog.Level.INFO, "%t is terminating."),
+
+    PASSENGERS_DISEMBARKING(EventLog.Level.INFO, "[%t]: %d Passengers are disembarking from Plane %d at Gate %d. "),
+    PASSENGERS_BOARDING(EventLog.Level.INFO, "[%t]: %d Passengers are boarding Plane %d at Gate %d. "),
+    PASSENGERS_BOARDING_TIME(EventLog.Level.DEBUG,
+            "[%t]: %s boarding of Plane %d took %d ms, %d seat shuffles."),
+
+    PLANE_HOLDING(EventLog.Level.INFO, "[%t]: Plane %d is holding on the apron until Gate %d is vacated."),
+    ATC_GRANTED_WITH_PREASSIGNED_GATE(EventLog.Level.INFO,
+            "[%t]: %s Permission Granted to Plane %d. Pre-assigned Gate: %d (still occupied), Runway: %d"),
+    ATC_SLOT_BOOKED(EventLog.Level.DEBUG, "[%t]: Runway %d booked for Plane %d from %d ms.");
+
+    private final EventLog.Level level;
+    private final String[] fragments; // Literal text around the placeholders, one more than there are placeholders
+    private final char[] placeholders; // 't', 's' or 'd'
+    private final int refCount;
+    private final int valueCount;
+
+    // CONSTRUCTOR
+    EventType(EventLog.Level level, String template) {
+        this.level = level;
+        List<String> parts = new ArrayList<>();
+        StringBuilder kinds = new StringBuilder();
+        int start = 0;
+        int refs = 0;
+        int values = 0;
+        for (int i = 0; i < template.length() - 1; i++) {
+            char c = template.charAt(i + 1);
+            if (template.charAt(i) == '%' && (c == 't' || c == 's' || c == 'd')) {
+                parts.add(template.substring(start, i));
+                kinds.append(c);
+                refs += (c == 's') ? 1 : 0;
+                values += (c == 'd') ? 1 : 0;
+                start = i + 2;
+                i++;
+            }
+        }
+        parts.add(template.substring(start));
+        this.fragments = parts.toArray(new String[0]);
+        this.placeholders = kinds.toString().toCharArray();
+        this.refCount = refs;
+        this.valueCount = values;
+    }
+
+    // GETTERS & SETTERS
+    public EventLog.Level getLevel() {
+        return level;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    // METHODS
+    public void format(StringBuilder sb, String thread, Object[] refs, long[] values) {
+        int ref = 0;
+        int value = 0;
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(fragments[i]);
+            switch (placeholders[i]) {
+                case 't':
+                    sb.append(thread);
+                    break;
+                case 's':
+                    sb.append(refs[ref++]);
+                    break;
+                default:
+                    sb.append(values[value++]);
+                    break;
+            }
+        }
+        sb.append(fragments[placeholders.length]);
+    }
+}
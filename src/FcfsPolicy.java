@@ -0,0 +1,14 @@
+public class FcfsPolicy implements SchedulingPolicy {
+    // The original ATC: whichever landing or takeoff asked first
+
+    // METHODS
+    @Override
+    public Airplane select(RunwayRequestQueue queue) {
+        return queue.peekFirstCome();
+    }
+
+    @Override
+    public String toString() {
+        return "fcfs";
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class FlightJournal {
+    // Append-only record of every ATC decision and actor transition, for audits and JournalReplay.
+    // Records are fixed size, so an append is one getAndAdd on the file position plus a few absolute puts into a
+    // memory-mapped segment: no lock, no syscall, and the OS writes the pages out even if we crash.
+    public enum Kind {
+        SIMULATION_START, // value = planes expected, Integer.MAX_VALUE if the schedule didn't say
+        REQUEST, // phase = what the plane asked for
+        DENY,
+        GRANT, // value = waiting time
+        LAND,
+        DOCK,
+        REFUEL_REQUEST,
+        REFUEL, // value = truck no
+        SERVICE,
+        DISEMBARK, // value = passengers
+        BOARD, // value = passengers
+        TAKEOFF,
+        SIMULATION_END // value = planes flown
+    }
+
+    // Record layout, little endian
+    static final int RECORD_SIZE = 32;
+    static final int TIME = 0; // long
+    static final int KIND = 8; // byte, Kind ordinal + 1, 0 means nothing was written here
+    static final int PHASE = 9; // byte, FlightPhase ordinal + 1, 0 if none
+    static final int PLANE = 12; // int
+    static final int GATE = 16; // int, 0 if none
+    static final int RUNWAY = 20; // int, 0 if none
+    static final int VALUE = 24; // long
+
+    // The header takes the first record slot: magic, version, record size
+    static final int MAGIC = 0x4A524E4C; // "JRNL"
+    static final int VERSION = 1;
+    static final int SEGMENT_SIZE = 1 << 20; // Bytes mapped at a time, a whole number of records
+    private static final int MAX_SEGMENTS = 1 << 16; // 64 GiB of journal
+
+    private static volatile FlightJournal current = null; // Journaling is off unless one is installed
+
+    private final Path path;
+    private final FileChannel channel;
+    private final AtomicReferenceArray<MappedByteBuffer> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final AtomicLong position = new AtomicLong(RECORD_SIZE);
+    private volatile boolean closed = false;
+
+    // GETTERS & SETTERS
+    public static FlightJournal get() {
+        return current;
+    }
+
+    public static void install(FlightJournal journal) { // Null turns journaling off again
+        current = journal;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getRecordCount() {
+        return position.get() / RECORD_SIZE - 1;
+    }
+
+    // CONSTRUCTOR
+    public FlightJournal(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open flight journal " + path, e);
+        }
+        MappedByteBuffer header = segment(0);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, RECORD_SIZE);
+    }
+
+    // METHODS
+    public static void record(Kind kind, FlightPhase phase, int plane, int gate, int runway, long value) {
+        FlightJournal journal = current;
+        if (journal != null) {
+            journal.append(SimClock.get().now(), kind, phase, plane, gate, runway, value);
+        }
+    }
+
+    public static void recordAt(long time, Kind kind, FlightPhase phase, int plane, int gate, int runway,
+            long value) { // For events whose time was already taken, e.g. a plane's request time
+        FlightJournal journal = current;
+        if (journal != null) {
+            journal.append(time, kind, phase, plane, gate, runway, value);
+        }
+    }
+
+    public void append(long time, Kind kind, FlightPhase phase, int plane, int gate, int runway, long value) {
+        if (closed) {
+            return;
+        }
+        long offset = position.getAndAdd(RECORD_SIZE);
+        MappedByteBuffer segment = segment((int) (offset / SEGMENT_SIZE));
+        int at = (int) (offset % SEGMENT_SIZE);
+        segment.putLong(at + TIME, time);
+        segment.put(at + PHASE, (byte) (phase == null ? 0 : phase.ordinal() + 1));
+        segment.putInt(at + PLANE, plane);
+        segment.putInt(at + GATE, gate);
+        segment.putInt(at + RUNWAY, runway);
+        segment.putLong(at + VALUE, value);
+        segment.put(at + KIND, (byte) (kind.ordinal() + 1)); // Last, a reader treats a zero kind as the end
+    }
+
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            synchronized (this) { // Only the first writer into a new megabyte gets here
+                segment = segments.get(index);
+                if (segment == null) {
+                    try {
+                        segment = channel.map(FileChannel.MapMode.READ_WRITE, (long) index * SEGMENT_SIZE,
+                                SEGMENT_SIZE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not grow flight journal " + path, e);
+                    }
+                    segment.order(ByteOrder.LITTLE_ENDIAN);
+                    segments.set(index, segment);
+                }
+            }
+        }
+        return segment;
+    }
+
+    public void close() { // Late actors are ignored after this, the unused tail of the last segment stays zero
+        closed = true;
+        try {
+            for (int i = 0; i < MAX_SEGMENTS && segments.get(i) != null; i++) {
+                segments.get(i).force();
+            }
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
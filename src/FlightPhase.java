@@ -0,0 +1,43 @@
+import java.util.EnumMap;
+import java.util.EnumSet;
+
+public enum FlightPhase {
+    // A plane's phase is the thing it is about to do next, same as the old nextAction strings
+    LANDING("Landing"),
+    EMERGENCY_LANDING("Emergency Landing"),
+    LANDED("Landed"),
+    DOCKING("Docking"),
+    IDLE("Idle"),
+    TAKEOFF("Takeoff"),
+    DEPARTED("Departed");
+
+    private static final EnumMap<FlightPhase, EnumSet<FlightPhase>> ALLOWED_TRANSITIONS = new EnumMap<>(
+            FlightPhase.class);
+
+    static {
+        ALLOWED_TRANSITIONS.put(LANDING, EnumSet.of(LANDED));
+        ALLOWED_TRANSITIONS.put(EMERGENCY_LANDING, EnumSet.of(LANDED));
+        ALLOWED_TRANSITIONS.put(LANDED, EnumSet.of(DOCKING));
+        ALLOWED_TRANSITIONS.put(DOCKING, EnumSet.of(IDLE));
+        ALLOWED_TRANSITIONS.put(IDLE, EnumSet.of(TAKEOFF));
+        ALLOWED_TRANSITIONS.put(TAKEOFF, EnumSet.of(DEPARTED));
+        ALLOWED_TRANSITIONS.put(DEPARTED, EnumSet.noneOf(FlightPhase.class));
+    }
+
+    private final String label;
+
+    // CONSTRUCTOR
+    FlightPhase(String label) {
+        this.label = label;
+    }
+
+    // METHODS
+    public boolean canAdvanceTo(FlightPhase next) {
+        return ALLOWED_TRANSITIONS.get(this).contains(next);
+    }
+
+    @Override
+    public String toString() { // Keeps the log output identical to the old strings
+        return label;
+    }
+}
@@ -0,0 +1,93 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Random;
+
+public abstract class FlightSchedule implements Iterator<ScheduledFlight>, AutoCloseable {
+    // Flights in arrival order, read one at a time so a schedule never has to fit in memory.
+    // Airport only creates a plane when its arrival time comes up.
+    static final int BINARY_MAGIC = 0x53434844; // "SCHD"
+    static final int BINARY_VERSION = 1;
+
+    // GETTERS & SETTERS
+    public long getFlightCount() { // -1 if the schedule can't know without reading all of it
+        return -1;
+    }
+
+    // METHODS
+    public static FlightSchedule open(Path path) { // Binary if it starts with the magic number, CSV otherwise
+        try {
+            boolean binary;
+            try (InputStream in = Files.newInputStream(path)) {
+                byte[] head = in.readNBytes(4);
+                binary = head.length == 4
+                        && (((head[0] & 0xFF) << 24) | ((head[1] & 0xFF) << 16) | ((head[2] & 0xFF) << 8)
+                                | (head[3] & 0xFF)) == BINARY_MAGIC;
+            }
+            return binary ? new BinaryFlightSchedule(path) : new CsvFlightSchedule(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open flight schedule " + path, e);
+        }
+    }
+
+    public void departed(ScheduledFlight flight) { // Called by the plane's thread once it has taken off
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public static void writeCsv(Iterator<ScheduledFlight> flights, Path path) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path)) {
+            out.write(CsvFlightSchedule.HEADER);
+            out.newLine();
+            while (flights.hasNext()) {
+                ScheduledFlight flight = flights.next();
+                out.write(flight.getArrivalTime() + "," + (flight.isEmergency() ? 1 : 0) + ","
+                        + flight.getDisembarkingPassengers() + "," + flight.getBoardingPassengers() + ","
+                        + flight.getServiceTimeMs() + "," + flight.getRefuelTimeMs());
+                out.newLine();
+            }
+        }
+    }
+
+    public static void writeBinary(Iterator<ScheduledFlight> flights, long flightCount, Path path)
+            throws IOException {
+        try (OutputStream file = Files.newOutputStream(path);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(BINARY_MAGIC);
+            out.writeInt(BINARY_VERSION);
+            out.writeLong(flightCount);
+            while (flights.hasNext()) {
+                BinaryFlightSchedule.write(out, flights.next());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException { // Writes a random schedule to load test with
+        if (args.length < 2) {
+            System.out.println("Usage: java FlightSchedule <out.csv|out.bin> <flights> [seed] [max arrival gap ms]");
+            return;
+        }
+        Path path = Path.of(args[0]);
+        long flights = Long.parseLong(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int maxGapMs = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        Random rand = new Random(seed);
+        RandomFlightSchedule schedule = new RandomFlightSchedule(rand, new Random(rand.nextLong()), flights,
+                maxGapMs);
+        if (path.toString().endsWith(".csv")) {
+            writeCsv(schedule, path);
+        } else {
+            writeBinary(schedule, flights, path);
+        }
+        System.out.printf("[%s]: Wrote %d flights to %s\n", Thread.currentThread().getName(), flights, path);
+    }
+}
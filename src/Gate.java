@@ -1,26 +1,27 @@
 public class Gate {
     private final int gateNo;
-    private Airplane dockedPlane;
+    private final int terminal;
+    private volatile Airplane dockedPlane;
 
-    private boolean isReserved;
+    // Volatile since ATC, planes and crews all read these, GatePool does the writes
+    private volatile boolean isReserved;
 
-    private boolean isOccupied;
+    private volatile boolean isOccupied;
+    private volatile Airplane preassignedPlane; // Landed already, waiting on the apron for this gate to be vacated
 
-    private GateServiceCrew serviceCrew;
-
-    private Thread serviceCrewThread;
+    private ServiceCrewPool serviceCrewPool; // Set by the pool, a gate has to belong to one before planes dock
 
     // GETTERS & SETTERS
-    public GateServiceCrew getServiceCrew() {
-        return serviceCrew;
+    public int getGateNo() {
+        return gateNo;
     }
 
-    public Thread getServiceCrewThread() {
-        return serviceCrewThread;
+    public void setServiceCrewPool(ServiceCrewPool serviceCrewPool) {
+        this.serviceCrewPool = serviceCrewPool;
     }
 
-    public int getGateNo() {
-        return gateNo;
+    public int getTerminal() {
+        return terminal;
     }
 
     public boolean isReserved() {
@@ -39,6 +40,14 @@ public class Gate {
         this.isOccupied = isOccupied;
     }
 
+    public Airplane getPreassignedPlane() {
+        return preassignedPlane;
+    }
+
+    public void setPreassignedPlane(Airplane preassignedPlane) {
+        this.preassignedPlane = preassignedPlane;
+    }
+
     public Airplane getDockedPlane() {
         return dockedPlane;
     }
@@ -49,12 +58,21 @@ public class Gate {
 
     // CONSTRUCTOR
     public Gate(int gateNo) {
+        this(gateNo, 1);
+    }
+
+    public Gate(int gateNo, int terminal) {
         this.gateNo = gateNo;
+        this.terminal = terminal;
         this.isOccupied = false;
+    }
 
-        this.serviceCrew = new GateServiceCrew(this);
-        this.serviceCrewThread = new Thread(serviceCrew, "Gate " + gateNo + "'s Service Crew");
-        serviceCrewThread.start();
+    // METHODS
+    public void requestService() { // Called by the docked plane
+        if (serviceCrewPool == null) { // Nobody would ever complete SERVICE, the plane would wait forever
+            throw new IllegalStateException("Gate " + gateNo + " has no ServiceCrewPool");
+        }
+        serviceCrewPool.submit(dockedPlane, this);
     }
 
 }
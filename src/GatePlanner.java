@@ -0,0 +1,171 @@
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class GatePlanner {
+    // Look-ahead gate assignment. When every gate is taken the greedy ATC can only wait for a takeoff to free one,
+    // and the runway sits idle while the docked planes finish their turnarounds. The planner estimates when each
+    // docked plane will have left (its Turnaround so far, what earlier turnarounds took, the usual takeoff wait)
+    // and lets a landing go ahead if its gate should be vacated by the time it gets there. The plane lands, gives
+    // the runway back and holds on the apron until the gate is handed over to it.
+    //
+    // Estimates only use what happened before the current instant. Actors that act at the same instant on the
+    // VirtualClock run in whatever order the threads get scheduled, so anything from "now" would make the plan,
+    // and a seeded run, depend on that.
+    static final long LANDING_TO_GATE_MS = 2000; // Airplane.land() + coastToGate(), the runway is held throughout
+    static final long TAKEOFF_MS = 1000; // Airplane.takeoff()
+    static final long DEFAULT_PASSENGER_MS = 2000; // Disembarking or boarding, until a turnaround has shown otherwise
+    private static final TurnaroundStage[] STAGES = TurnaroundStage.values();
+
+    private final GatePool gatePool;
+    private final int runwayCount;
+    private final LatencyRecorder waitingTimes;
+    private final long maxHoldMs; // How long past its arrival at the gate a plane may be expected to hold
+
+    // Finished turnarounds, folded into the sums below by the ATC thread once they're in the past
+    private final ConcurrentLinkedQueue<Turnaround> finished = new ConcurrentLinkedQueue<>();
+    private final long[] waitSums = new long[STAGES.length];
+    private final long[] durationSums = new long[STAGES.length];
+    private long turnarounds = 0;
+
+    private final LatencyHistogram holdTimes = new LatencyHistogram(); // Apron holds of pre-assigned planes
+    private volatile long preassignments = 0; // Only the ATC thread writes
+
+    // GETTERS & SETTERS
+    public long getPreassignments() {
+        return preassignments;
+    }
+
+    public LatencyHistogram getHoldTimes() {
+        return holdTimes;
+    }
+
+    // CONSTRUCTOR
+    public GatePlanner(GatePool gatePool, int runwayCount, LatencyRecorder waitingTimes, long maxHoldMs) {
+        this.gatePool = gatePool;
+        this.runwayCount = runwayCount;
+        this.waitingTimes = waitingTimes;
+        this.maxHoldMs = maxHoldMs;
+    }
+
+    // METHODS
+    public void recordTurnaround(Turnaround turnaround) { // Any thread, when the last stage is done
+        finished.add(turnaround);
+    }
+
+    // Completion order is time order, so stop at the first one from now. ATC also calls it after every scheduler
+    // pass, or a run that never fills its gates would keep every finished Turnaround (and its plane) forever.
+    void foldHistory(long now) {
+        Turnaround turnaround;
+        while ((turnaround = finished.peek()) != null && turnaround.getDockedAt() + turnaround.getTotalTime() < now) {
+            finished.poll();
+            for (TurnaroundStage stage : STAGES) {
+                waitSums[stage.ordinal()] += turnaround.getWaitTime(stage);
+                durationSums[stage.ordinal()] += turnaround.getDuration(stage);
+            }
+            turnarounds++;
+        }
+    }
+
+    private long expectedWait(TurnaroundStage stage) {
+        return turnarounds > 0 ? waitSums[stage.ordinal()] / turnarounds : 0;
+    }
+
+    private long expectedDuration(Airplane airplane, TurnaroundStage stage) {
+        switch (stage) {
+            case SERVICE:
+                return airplane.getServiceTimeMs();
+            case REFUEL:
+                return airplane.getRefuelTimeMs();
+            default: // Passengers, depends on the cabin so go by what the earlier turnarounds took
+                return turnarounds > 0 ? durationSums[stage.ordinal()] / turnarounds : DEFAULT_PASSENGER_MS;
+        }
+    }
+
+    long estimateCompletion(Turnaround turnaround, long now) { // When the last stage should be done
+        long[] expectedEnd = new long[STAGES.length];
+        long completion = now;
+        for (TurnaroundStage stage : STAGES) { // Declaration order has dependencies first
+            long startedAt = turnaround.getStartedAt(stage);
+            long finishedAt = turnaround.getFinishedAt(stage);
+            long expectedDuration = expectedDuration(turnaround.getAirplane(), stage);
+            long end;
+            if (finishedAt >= 0 && finishedAt < now) {
+                end = finishedAt;
+            } else if (startedAt >= 0 && startedAt < now) { // Finishing right now counts as still running
+                end = Math.max(now, startedAt + expectedDuration);
+            } else {
+                long ready = turnaround.getDockedAt();
+                for (TurnaroundStage dependency : stage.getDependencies()) {
+                    ready = Math.max(ready, expectedEnd[dependency.ordinal()]);
+                }
+                end = Math.max(now, ready + expectedWait(stage)) + expectedDuration;
+            }
+            expectedEnd[stage.ordinal()] = end;
+            completion = Math.max(completion, end);
+        }
+        return completion;
+    }
+
+    public long expectedRelease(Gate gate, long now) { // When the docked plane should have vacated the gate
+        Airplane docked = gate.getDockedPlane();
+        Turnaround turnaround = (docked != null) ? docked.getTurnaround() : null;
+        if (turnaround == null || turnaround.getDockedAt() >= now) {
+            return Long.MAX_VALUE; // Not docked before this instant, nothing to go on
+        }
+        if (docked.getPermissionGrantedTime() >= turnaround.getDockedAt()) { // ATC already cleared it for takeoff
+            return docked.getPermissionGrantedTime() + TAKEOFF_MS;
+        }
+        long ready = estimateCompletion(turnaround, now);
+        if (ready <= now) {
+            // Done, and about to ask for takeoff if it hasn't yet. Whether that request is queued is down to
+            // thread timing, so leave the gate to the takeoff-first rule rather than race it.
+            return Long.MAX_VALUE;
+        }
+        long takeoffAt = ready + (long) waitingTimes.get(LatencyRecorder.MovementType.TAKEOFF).getMean();
+        if (runwayCount == 1) {
+            takeoffAt = Math.max(takeoffAt, now + LANDING_TO_GATE_MS); // Our own landing has the only runway
+        }
+        return takeoffAt + TAKEOFF_MS;
+    }
+
+    public Gate findGate(Airplane airplane) { // The occupied gate that frees up soonest, if soon enough
+        long now = SimClock.get().now();
+        foldHistory(now);
+        long needBy = now + LANDING_TO_GATE_MS + maxHoldMs;
+        Gate best = null;
+        long bestRelease = Long.MAX_VALUE;
+        for (Gate gate : gatePool.getGates()) {
+            if (!gate.isOccupied() || gate.getPreassignedPlane() != null) {
+                continue;
+            }
+            long release = expectedRelease(gate, now);
+            if (release > needBy) {
+                continue;
+            }
+            if (release < bestRelease
+                    || (release == bestRelease && gate.getTerminal() == airplane.getPreferredTerminal())) {
+                best = gate;
+                bestRelease = release;
+            }
+        }
+        return best;
+    }
+
+    public Gate preassign(Airplane airplane) { // Called by ATC when granting the landing
+        Gate gate = findGate(airplane);
+        if (gate == null || !gatePool.preassignGate(gate, airplane)) {
+            return null; // Nothing soon enough after all, or vacated under us and on the free list now
+        }
+        preassignments++;
+        return gate;
+    }
+
+    public void recordHold(long holdTime) {
+        holdTimes.record(holdTime);
+    }
+
+    public void printStatistics(PrintStream out) {
+        out.printf("[%s]: Gate pre-assignments: %d, apron holds: %s\n", Thread.currentThread().getName(),
+                preassignments, LatencyRecorder.describe(holdTimes));
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GatePool {
+    public static final int ANY_TERMINAL = -1;
+
+    private final Gate[] gates;
+    // Lock-free free list per terminal, a gate polled from here belongs to whoever polled it
+    private final List<ConcurrentLinkedQueue<Gate>> freeGatesByTerminal = new ArrayList<>();
+    private final TreeMap<Integer, Integer> terminalIndex = new TreeMap<>(); // Terminal no -> free list index
+
+    // Live counts so nobody has to walk the gates to know how busy the apron is
+    private final AtomicInteger freeCount = new AtomicInteger(0);
+    private final AtomicInteger reservedCount = new AtomicInteger(0); // Reserved for a plane that hasn't docked yet
+    private final AtomicInteger occupiedCount = new AtomicInteger(0);
+
+    // GETTERS & SETTERS
+    public Gate[] getGates() {
+        return gates;
+    }
+
+    public int getFreeCount() {
+        return freeCount.get();
+    }
+
+    public int getReservedCount() {
+        return reservedCount.get();
+    }
+
+    public int getOccupiedCount() {
+        return occupiedCount.get();
+    }
+
+    public int getBusyCount() { // Reserved or occupied, what the ATC waits on before calling the run complete
+        return reservedCount.get() + occupiedCount.get();
+    }
+
+    // CONSTRUCTOR
+    public GatePool(Gate[] gates) {
+        this.gates = gates;
+        for (Gate gate : gates) {
+            Integer index = terminalIndex.get(gate.getTerminal());
+            if (index == null) {
+                index = freeGatesByTerminal.size();
+                terminalIndex.put(gate.getTerminal(), index);
+                freeGatesByTerminal.add(new ConcurrentLinkedQueue<>());
+            }
+            freeGatesByTerminal.get(index).add(gate);
+            freeCount.incrementAndGet();
+        }
+    }
+
+    // METHODS
+    public boolean hasFreeGate() {
+        return freeCount.get() > 0;
+    }
+
+    public boolean allGatesFree() {
+        return freeCount.get() == gates.length;
+    }
+
+    public Gate reserveGate(int preferredTerminal) { // Falls back to any other terminal if the preferred one is full
+        Integer preferred = terminalIndex.get(preferredTerminal);
+        Gate gate = preferred != null ? freeGatesByTerminal.get(preferred).poll() : null;
+        for (int i = 0; gate == null && i < freeGatesByTerminal.size(); i++) { // Number of terminals, not gates
+            gate = freeGatesByTerminal.get(i).poll();
+        }
+        if (gate == null) {
+            return null;
+        }
+
+        freeCount.decrementAndGet();
+        reservedCount.incrementAndGet();
+        gate.setReserved(true);
+        return gate;
+    }
+
+    public void occupyGate(Gate gate, Airplane airplane) {
+        gate.setDockedPlane(airplane);
+        gate.setOccupied(true);
+        reservedCount.decrementAndGet();
+        occupiedCount.incrementAndGet();
+    }
+
+    public boolean preassignGate(Gate gate, Airplane airplane) { // Promise an occupied gate to the next plane
+        synchronized (gate) { // Only against releaseGate(), so the promise can't slip in after the plane left
+            if (!gate.isOccupied() || gate.getPreassignedPlane() != null) {
+                return false;
+            }
+            gate.setPreassignedPlane(airplane);
+            return true;
+        }
+    }
+
+    public void releaseGate(Gate gate) {
+        Airplane next;
+        synchronized (gate) {
+            next = gate.getPreassignedPlane();
+            gate.setPreassignedPlane(null);
+            gate.setReserved(next != null); // Straight to the plane that was promised it, never on the free list
+            gate.setOccupied(false);
+            gate.setDockedPlane(null);
+        }
+        occupiedCount.decrementAndGet();
+
+        if (next != null) {
+            reservedCount.incrementAndGet();
+            next.gateVacated();
+            return;
+        }
+        freeGatesByTerminal.get(terminalIndex.get(gate.getTerminal())).add(gate);
+        freeCount.incrementAndGet();
+    }
+}
@@ -1,65 +1,85 @@
 public class GateServiceCrew implements Runnable {
-    private final Gate gate;
-    private Airplane assignedPlane;
-    private volatile boolean running = true;
+    // A service crew from the ServiceCrewPool, goes to whichever gate the pool hands it
+    private final int crewNo;
+    private final int homeTerminal;
+    private final int homeIndex; // Home terminal's queue in the pool
+    private final ServiceCrewPool pool;
+
+    // Utilization metrics
+    private volatile long busyTime = 0; // On the SimClock
+    private volatile int planesServiced = 0;
+    private volatile int planesStolen = 0; // Serviced at another terminal's gate
 
     // GETTERS & SETTERS
-    // CONSTRUCTOR
-    public GateServiceCrew(Gate gate) {
-        this.gate = gate;
+    public int getCrewNo() {
+        return crewNo;
     }
 
-    // METHODS
-    public void killMyself() {
-        running = false;
-        synchronized (gate) {
-            gate.notifyAll(); // Won't actually matter, the only thread waiting here is the crew itself
-        }
+    public int getHomeTerminal() {
+        return homeTerminal;
+    }
+
+    int getHomeIndex() {
+        return homeIndex;
     }
 
-    public void servicePlane() {
+    public long getBusyTime() {
+        return busyTime;
+    }
 
-        System.out.printf("[%s]: Gate %d's service crew is servicing Plane %d. \n",
-                Thread.currentThread().getName(),
-                gate.getGateNo(),
-                assignedPlane.getPlaneNo());
+    public int getPlanesServiced() {
+        return planesServiced;
+    }
+
+    public int getPlanesStolen() {
+        return planesStolen;
+    }
+
+    // CONSTRUCTOR
+    public GateServiceCrew(int crewNo, int homeTerminal, int homeIndex, ServiceCrewPool pool) {
+        this.crewNo = crewNo;
+        this.homeTerminal = homeTerminal;
+        this.homeIndex = homeIndex;
+        this.pool = pool;
+    }
+
+    // METHODS
+    public void servicePlane(Airplane airplane, Gate gate) { // No gate lock is held while the crew works
+        long busyStart = SimClock.get().now();
+        airplane.getTurnaround().start(TurnaroundStage.SERVICE);
+        EventLog.log(EventType.CREW_SERVICING, airplane.getPlaneNo(), gate.getGateNo());
 
         try {
-            Thread.sleep(3000);
+            SimClock.get().sleep(airplane.getServiceTimeMs());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        System.out.printf("[%s]: Gate %d's service crew has finished servicing Plane %d. \n",
-                Thread.currentThread().getName(),
-                gate.getGateNo(),
-                assignedPlane.getPlaneNo());
-        assignedPlane.setServiced(true);
-
-        synchronized (assignedPlane) {
-            assignedPlane.notifyAll(); // Notify the airplane that servicing is complete
-        }
+        EventLog.log(EventType.CREW_SERVICED, airplane.getPlaneNo(), gate.getGateNo());
+        FlightJournal.record(FlightJournal.Kind.SERVICE, null, airplane.getPlaneNo(), gate.getGateNo(), 0, 0);
+        planesServiced++;
+        busyTime += SimClock.get().now() - busyStart;
+        airplane.getTurnaround().complete(TurnaroundStage.SERVICE);
     }
 
     @Override
     public void run() {
-        synchronized (gate) {
-            while (running) {
-                assignedPlane = gate.getDockedPlane();
-                if (assignedPlane != null && gate.isOccupied() && !assignedPlane.isServiced()) {
-                    servicePlane();
-                }
-                try {
-                    gate.wait();
-                } catch (InterruptedException e) {
-                    if (!running) {
-                        break;
-                    }
-                    Thread.currentThread().interrupt();
-                }
+        while (true) {
+            ServiceCrewPool.ServiceRequest request;
+            try {
+                request = pool.take(this);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (request == null) {
+                break; // Pool shut down and nothing left to do
+            }
+            if (request.terminalIndex != homeIndex) {
+                planesStolen++;
             }
+            servicePlane(request.airplane, request.gate);
         }
-        System.out.println("Gate Service Crew at Gate " + gate.getGateNo() + " is terminating.");
+        EventLog.log(EventType.CREW_TERMINATING);
         return;
     }
 
@@ -0,0 +1,59 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class GrantSignal {
+    // One-shot permission handoff from ATC to exactly one plane thread. A signalAll() on the plane's monitor also
+    // woke the passengers waiting there, this parks and unparks the one waiting thread and nobody else. The state
+    // is a single CAS, so a grant that comes before the plane gets round to waiting is kept, not lost, and a second
+    // grant for the same request is a bug we'd rather hear about. Reusable: await() consumes the grant.
+    private static final int IDLE = 0;
+    private static final int WAITING = 1; // The plane is parked (or about to be)
+    private static final int GRANTED = 2; // Not consumed yet
+
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private volatile Thread waiter;
+    private volatile SimClock waiterClock; // The plane's, so ATC does the virtual clock bookkeeping on the right one
+
+    // METHODS
+    public void await() throws InterruptedException { // The plane's thread
+        waiter = Thread.currentThread(); // Before the CAS, a grant right after it unparks us
+        waiterClock = SimClock.get();
+        if (!state.compareAndSet(IDLE, WAITING)) { // Already granted
+            consume();
+            return;
+        }
+        waiterClock.actorBlocked(); // After the CAS, so a grant from here on counts us as resumed
+        boolean interrupted = false;
+        while (state.get() != GRANTED) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                if (state.compareAndSet(WAITING, IDLE)) { // Gave up before the grant came
+                    waiterClock.actorsResumed(1);
+                    throw new InterruptedException();
+                }
+                interrupted = true; // Granted at the same moment, take it and keep the interrupt
+            }
+        }
+        consume();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void consume() {
+        if (!state.compareAndSet(GRANTED, IDLE)) {
+            throw new IllegalStateException("Grant consumed twice");
+        }
+    }
+
+    public void grant() { // ATC's thread, once per request
+        int previous = state.getAndSet(GRANTED);
+        if (previous == GRANTED) {
+            throw new IllegalStateException("Permission granted twice for the same request");
+        }
+        if (previous == WAITING) {
+            waiterClock.actorsResumed(1);
+            LockSupport.unpark(waiter);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class GrantStress {
+    // Stress test for the ATC -> plane grant handoff. Thousands of "planes" request over and over from a few
+    // "ATC" threads that grant in whatever order the queue hands them out, often before the plane has even got
+    // round to waiting. Every request has to be answered with exactly one grant: a lost grant leaves a plane
+    // stuck (caught by the timeout), a double grant throws. Then the same through a whole Airport, with every
+    // plane arriving at once on the virtual clock.
+    // e.g. java -Dstress.planes=5000 -Dstress.requests=100 -Dairport.threads=virtual GrantStress
+    private static final GrantSignal STOP = new GrantSignal(); // Poison pill for the granters
+
+    // METHODS
+    public static long run(int planes, int requests, int granters, long timeoutMs) throws InterruptedException {
+        // Returns the number of grants, throws if any went missing
+        LinkedBlockingQueue<GrantSignal> queue = new LinkedBlockingQueue<>();
+        AtomicLongArray received = new AtomicLongArray(planes);
+        AtomicLong granted = new AtomicLong();
+        Throwable[] failure = new Throwable[1];
+
+        Thread[] granterThreads = new Thread[granters];
+        for (int g = 0; g < granters; g++) {
+            granterThreads[g] = ActorRunner.start(() -> {
+                try {
+                    GrantSignal signal;
+                    while ((signal = queue.take()) != STOP) {
+                        if (ThreadLocalRandom.current().nextInt(8) == 0) {
+                            Thread.yield(); // Let some planes get parked first, the rest are granted before waiting
+                        }
+                        signal.grant();
+                        granted.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                }
+            }, "Grant Stress ATC " + (g + 1));
+        }
+
+        Thread[] planeThreads = new Thread[planes];
+        for (int p = 0; p < planes; p++) {
+            int plane = p;
+            planeThreads[p] = ActorRunner.start(() -> {
+                GrantSignal clearance = new GrantSignal();
+                try {
+                    for (int r = 0; r < requests; r++) {
+                        queue.add(clearance);
+                        clearance.await();
+                        received.incrementAndGet(plane);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                }
+            }, "Grant Stress Plane " + (p + 1));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (Thread thread : planeThreads) {
+            thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+        for (int g = 0; g < granters; g++) {
+            queue.add(STOP);
+        }
+        for (Thread thread : granterThreads) {
+            thread.join(1000);
+        }
+
+        int stuck = 0;
+        for (int p = 0; p < planes; p++) {
+            if (received.get(p) != requests) {
+                stuck++;
+                planeThreads[p].interrupt();
+            }
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException("Grant handoff failed", failure[0]);
+        }
+        if (stuck > 0) {
+            throw new IllegalStateException(stuck + " planes never got all their grants, " + granted.get() + " of "
+                    + (long) planes * requests + " granted");
+        }
+        return granted.get();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int planes = Integer.getInteger("stress.planes", 2000);
+        int requests = Integer.getInteger("stress.requests", 100);
+        int granters = Integer.getInteger("stress.granters", 4);
+        ActorRunner.setMode(System.getProperty("airport.threads", "platform").equalsIgnoreCase("virtual")
+                ? ActorRunner.Mode.VIRTUAL : ActorRunner.Mode.PLATFORM);
+
+        long start = System.nanoTime();
+        long grants = run(planes, requests, granters, Long.getLong("stress.timeoutMs", 120000));
+        double ms = (System.nanoTime() - start) / 1e6;
+        System.out.printf("[%s]: %d planes x %d requests, %d ATC threads: %d grants, none lost (%.0f ms, %.0f/s)\n",
+                Thread.currentThread().getName(), planes, requests, granters, grants, ms, grants / (ms / 1000));
+
+        // Now the real thing, everyone asking ATC for a runway at the same instant
+        Airport airport = Airport.fromSystemProperties();
+        airport.setAirplaneCount(planes);
+        airport.setMaxArrivalGapMs(0);
+        airport.setVirtualClock(true);
+        airport.setLogLevel(EventLog.Level.OFF);
+        ATC atc = airport.run();
+        if (atc.getPlanesLanded() != planes || atc.getPlanesTakenOff() != planes) {
+            throw new IllegalStateException("Airport lost grants: " + atc.getPlanesLanded() + " landed, "
+                    + atc.getPlanesTakenOff() + " took off of " + planes);
+        }
+        System.out.printf("[%s]: Airport with %d simultaneous arrivals: every plane landed and took off\n",
+                Thread.currentThread().getName(), planes);
+    }
+}
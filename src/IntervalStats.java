@@ -0,0 +1,81 @@
+import java.util.function.IntSupplier;
+
+public class IntervalStats {
+    // Throughput and waits per reporting interval, for soak runs that never end. The last windowSize intervals
+    // live in a ring of LatencyRecorders that are reset and reused, so memory stays the same after a week as after
+    // a minute. Only the ATC thread records and reports: an interval is reported the first time ATC looks after it
+    // ended, so nothing has to sleep on the SimClock just to print and a VirtualClock run isn't stretched by it.
+    private final long intervalMs;
+    private final LatencyRecorder[] window;
+    private final LatencyHistogram rolling = new LatencyHistogram(); // Reused for every report
+    private final IntSupplier outstandingPlanes;
+    private final long startTime; // On the SimClock, intervals are counted from here
+    private long intervalNo = 0; // window[intervalNo % window.length] is the interval being recorded
+
+    // CONSTRUCTOR
+    public IntervalStats(long intervalMs, int windowSize, long startTime, IntSupplier outstandingPlanes) {
+        this.intervalMs = intervalMs;
+        this.window = new LatencyRecorder[Math.max(1, windowSize)];
+        for (int i = 0; i < window.length; i++) {
+            window[i] = new LatencyRecorder();
+        }
+        this.startTime = startTime;
+        this.outstandingPlanes = outstandingPlanes;
+    }
+
+    // METHODS
+    private LatencyRecorder current() {
+        return window[(int) (intervalNo % window.length)];
+    }
+
+    private long intervalEnd() {
+        return startTime + (intervalNo + 1) * intervalMs;
+    }
+
+    public void record(LatencyRecorder.MovementType type, long waitingTime) {
+        advanceTo(SimClock.get().now());
+        current().record(type, waitingTime);
+    }
+
+    public void advanceTo(long now) { // Reports every interval that has ended by now, empty ones included
+        while (now >= intervalEnd()) {
+            report(intervalEnd());
+            intervalNo++;
+            current().reset(); // The oldest interval drops out of the rolling window
+        }
+    }
+
+    public void finish(long now) { // End of the run, the last interval is cut short
+        advanceTo(now);
+        if (now > intervalEnd() - intervalMs) {
+            report(now);
+        }
+    }
+
+    private void report(long end) {
+        LatencyRecorder interval = current();
+        long from = intervalEnd() - intervalMs - startTime;
+        long length = Math.max(1, end - startTime - from);
+        long landings = interval.get(LatencyRecorder.MovementType.LANDING).getCount();
+        long takeoffs = interval.get(LatencyRecorder.MovementType.TAKEOFF).getCount();
+        long emergencies = interval.get(LatencyRecorder.MovementType.EMERGENCY).getCount();
+
+        int intervals = (int) Math.min(intervalNo + 1, window.length);
+        rolling.reset();
+        for (int i = 0; i < intervals; i++) {
+            rolling.add(window[(int) ((intervalNo - i) % window.length)].getAll());
+        }
+
+        EventLog.flush(); // Straight to stdout like the end of run statistics, keep it in order with the actors
+        String name = Thread.currentThread().getName();
+        // One print for all three lines, airports of a network report from their own threads at the same time
+        System.out.print(String.format("[%s]: Interval %d (%d-%d ms): %d landings, %d takeoffs, %d emergencies, "
+                + "%.0f movements/hour, %d planes outstanding\n", name, intervalNo + 1, from, end - startTime,
+                landings, takeoffs, emergencies, 3_600_000.0 * (landings + takeoffs + emergencies) / length,
+                outstandingPlanes.getAsInt())
+                + String.format("[%s]: Interval %d waits: %s\n", name, intervalNo + 1,
+                        LatencyRecorder.describe(interval.getAll()))
+                + String.format("[%s]: Last %d intervals waits: %s\n", name, intervals,
+                        LatencyRecorder.describe(rolling)));
+    }
+}
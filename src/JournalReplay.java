@@ -0,0 +1,232 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class JournalReplay {
+    // Rebuilds what ATC knew at any point of a journaled run, and the sanityCheck() statistics, from the
+    // FlightJournal alone. Usage: java JournalReplay <journal> [time in ms since the simulation started]
+    private static final FlightPhase[] PHASES = FlightPhase.values();
+    private static final FlightJournal.Kind[] KINDS = FlightJournal.Kind.values();
+
+    // Same lanes as RunwayRequestQueue, plane no -> request order
+    private final LinkedHashMap<Integer, Long> emergencyLane = new LinkedHashMap<>();
+    private final LinkedHashMap<Integer, Long> takeoffLane = new LinkedHashMap<>();
+    private final LinkedHashMap<Integer, Long> landingLane = new LinkedHashMap<>();
+    private final Map<Integer, Long> requestTimes = new TreeMap<>();
+    private long nextSequence = 0;
+
+    private final TreeMap<Integer, Integer> runwayInUseBy = new TreeMap<>(); // Runway no -> plane no
+    private final TreeMap<Integer, Integer> runwayMovements = new TreeMap<>();
+    private final TreeMap<Integer, Integer> gateOccupiedBy = new TreeMap<>(); // Gate no -> plane no
+    private final TreeMap<Integer, Integer> gateReservedFor = new TreeMap<>(); // Can be an occupied, pre-assigned gate
+
+    private final LatencyRecorder waitingTimes = new LatencyRecorder();
+    private long startTime = -1;
+    private long endTime = -1;
+    private long lastTime = 0;
+    private int expectedPlanes = 0;
+    private int planesLanded = 0;
+    private int planesTakenOff = 0;
+    private int boardedPassengers = 0;
+    private int disembarkedPassengers = 0;
+    private int denials = 0;
+    private int refuels = 0;
+    private int services = 0;
+    private long records = 0;
+
+    // METHODS
+    public void replay(Path journal, long until) throws IOException { // until is relative to SIMULATION_START
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long base = 0; base < size; base += FlightJournal.SEGMENT_SIZE) {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, base,
+                        Math.min(FlightJournal.SEGMENT_SIZE, size - base));
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                int at = 0;
+                if (base == 0) {
+                    if (segment.getInt(0) != FlightJournal.MAGIC || segment.getInt(4) != FlightJournal.VERSION) {
+                        throw new IOException(journal + " is not a flight journal");
+                    }
+                    at = FlightJournal.RECORD_SIZE;
+                }
+                for (; at + FlightJournal.RECORD_SIZE <= segment.limit(); at += FlightJournal.RECORD_SIZE) {
+                    int kind = segment.get(at + FlightJournal.KIND);
+                    if (kind == 0) {
+                        continue; // Claimed but never written, or the unused tail of the last segment
+                    }
+                    long time = segment.getLong(at + FlightJournal.TIME);
+                    if (startTime >= 0 && time - startTime > until) {
+                        continue; // Records are only roughly in time order, so keep scanning
+                    }
+                    int phase = segment.get(at + FlightJournal.PHASE);
+                    apply(KINDS[kind - 1], time, phase == 0 ? null : PHASES[phase - 1],
+                            segment.getInt(at + FlightJournal.PLANE), segment.getInt(at + FlightJournal.GATE),
+                            segment.getInt(at + FlightJournal.RUNWAY), segment.getLong(at + FlightJournal.VALUE));
+                }
+            }
+        }
+    }
+
+    private void apply(FlightJournal.Kind kind, long time, FlightPhase phase, int plane, int gate, int runway,
+            long value) {
+        records++;
+        lastTime = Math.max(lastTime, time);
+        switch (kind) {
+            case SIMULATION_START:
+                startTime = time;
+                expectedPlanes = (int) value;
+                break;
+            case REQUEST:
+                laneFor(phase).put(plane, nextSequence++);
+                requestTimes.put(plane, time);
+                break;
+            case DENY:
+                denials++;
+                break;
+            case GRANT:
+                laneFor(phase).remove(plane);
+                runwayInUseBy.put(runway, plane);
+                runwayMovements.merge(runway, 1, Integer::sum);
+                long waitingTime = time - requestTimes.getOrDefault(plane, time);
+                if (phase == FlightPhase.TAKEOFF) {
+                    planesTakenOff++;
+                    waitingTimes.record(LatencyRecorder.MovementType.TAKEOFF, waitingTime);
+                } else {
+                    planesLanded++;
+                    gateReservedFor.put(gate, plane);
+                    waitingTimes.record(phase == FlightPhase.EMERGENCY_LANDING
+                            ? LatencyRecorder.MovementType.EMERGENCY
+                            : LatencyRecorder.MovementType.LANDING, waitingTime);
+                }
+                break;
+            case DOCK:
+                runwayInUseBy.remove(runway, plane); // A plane that held for its gate gave the runway back earlier
+                gateReservedFor.remove(gate, plane);
+                gateOccupiedBy.put(gate, plane);
+                break;
+            case REFUEL:
+                refuels++;
+                break;
+            case SERVICE:
+                services++;
+                break;
+            case DISEMBARK:
+                disembarkedPassengers += (int) value;
+                break;
+            case BOARD:
+                boardedPassengers += (int) value;
+                break;
+            case TAKEOFF:
+                runwayInUseBy.remove(runway, plane);
+                gateOccupiedBy.remove(gate, plane);
+                break;
+            case SIMULATION_END:
+                endTime = time;
+                expectedPlanes = (int) value;
+                break;
+            default: // LAND, REFUEL_REQUEST: nothing ATC keeps track of
+                break;
+        }
+    }
+
+    private LinkedHashMap<Integer, Long> laneFor(FlightPhase phase) {
+        switch (phase) {
+            case EMERGENCY_LANDING:
+                return emergencyLane;
+            case TAKEOFF:
+                return takeoffLane;
+            default:
+                return landingLane;
+        }
+    }
+
+    private static void appendLane(StringBuilder sb, String name, Map<Integer, Long> lane, FlightPhase phase) {
+        sb.append(String.format("%s(size=%d): ", name, lane.size()));
+        for (Integer planeNo : lane.keySet()) {
+            sb.append(String.format("%d(%s), ", planeNo, phase));
+        }
+    }
+
+    public void printReport() {
+        String name = Thread.currentThread().getName();
+        System.out.println(
+                "**************************************************************************************************");
+        System.out.printf("[%s]: Replayed %d journal records up to %d ms%s\n", name, records,
+                startTime >= 0 ? lastTime - startTime : 0, endTime >= 0 ? " (end of simulation)" : "");
+
+        StringBuilder queues = new StringBuilder();
+        appendLane(queues, "Emergency", emergencyLane, FlightPhase.EMERGENCY_LANDING);
+        appendLane(queues, " || Takeoff", takeoffLane, FlightPhase.TAKEOFF);
+        appendLane(queues, " || Landing", landingLane, FlightPhase.LANDING);
+        System.out.printf("[%s]: ATC queues: %s\n", name, queues);
+        for (Map.Entry<Integer, Integer> entry : runwayInUseBy.entrySet()) {
+            System.out.printf("[%s]: Runway %d is in use by Plane %d\n", name, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Integer, Integer> entry : gateOccupiedBy.entrySet()) {
+            Integer next = gateReservedFor.get(entry.getKey());
+            System.out.printf("[%s]: Gate %d is occupied by Plane %d%s\n", name, entry.getKey(), entry.getValue(),
+                    next != null ? ", pre-assigned to Plane " + next : "");
+        }
+        for (Map.Entry<Integer, Integer> entry : gateReservedFor.entrySet()) {
+            if (!gateOccupiedBy.containsKey(entry.getKey())) {
+                System.out.printf("[%s]: Gate %d is reserved for Plane %d\n", name, entry.getKey(),
+                        entry.getValue());
+            }
+        }
+
+        // Same checks and statistics as ATC.sanityCheck()
+        System.out.printf("[%s]: %s\n", name, gateOccupiedBy.isEmpty() && gateReservedFor.isEmpty()
+                ? "All gates are free."
+                : "Sanity check FAILED! Some gates are still occupied or reserved.");
+        System.out.printf("[%s]: %s\n", name, runwayInUseBy.isEmpty() ? "All runways are available."
+                : "Sanity check FAILED! A runway is still occupied.");
+        boolean queuesEmpty = emergencyLane.isEmpty() && takeoffLane.isEmpty() && landingLane.isEmpty();
+        System.out.printf("[%s]: %s\n", name, queuesEmpty ? "No pending requests in queues."
+                : "Sanity check FAILED! There are still pending requests in queues.");
+
+        System.out.println("-------------------------------- Plane Statistics --------------------------------");
+        if (startTime >= 0 && endTime >= 0) {
+            System.out.printf("[%s]: Simulated run time: %d ms\n", name, endTime - startTime);
+        }
+        if (expectedPlanes == Integer.MAX_VALUE) { // Streamed schedule, the count is only known at the end
+            System.out.printf("[%s]: Total planes landed: %d\n", name, planesLanded);
+        } else {
+            System.out.printf("[%s]: Total planes landed: %d (of %d expected)\n", name, planesLanded,
+                    expectedPlanes);
+        }
+        System.out.printf("[%s]: Total planes taken off: %d\n", name, planesTakenOff);
+        for (Map.Entry<Integer, Integer> entry : runwayMovements.entrySet()) {
+            System.out.printf("[%s]: Runway %d handled %d movements\n", name, entry.getKey(), entry.getValue());
+        }
+        System.out.printf("[%s]: Total passengers boarded: %d\n", name, boardedPassengers);
+        System.out.printf("[%s]: Total passengers disembarked: %d\n", name, disembarkedPassengers);
+        System.out.printf("[%s]: Refuels: %d, services: %d, denials: %d\n", name, refuels, services, denials);
+
+        LatencyHistogram allWaits = waitingTimes.getAll();
+        System.out.printf("[%s]: Average plane waiting time: %.2f ms\n", name, allWaits.getMean());
+        System.out.printf("[%s]: Maximum plane waiting time: %.2f ms\n", name, (double) allWaits.getMax());
+        System.out.printf("[%s]: Minimum non-zero plane waiting time: %.2f ms\n", name,
+                (double) allWaits.getMinNonZero());
+        for (LatencyRecorder.MovementType type : LatencyRecorder.MovementType.values()) {
+            System.out.printf("[%s]: %s waits: %s\n", name, type, waitingTimes.describe(type));
+        }
+        System.out.println(
+                "**************************************************************************************************");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java JournalReplay <journal> [time in ms since the simulation started]");
+            return;
+        }
+        JournalReplay replay = new JournalReplay();
+        replay.replay(Path.of(args[0]), args.length == 2 ? Long.parseLong(args[1]) : Long.MAX_VALUE);
+        replay.printReport();
+    }
+}
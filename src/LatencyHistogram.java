@@ -0,0 +1,105 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    // HDR-style log-linear buckets: exact below 128, then 64 buckets per power of two (about 1.5% error).
+    // Fixed memory no matter how many values are recorded, and recording is a couple of atomic adds.
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; // 128
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2; // 64
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder(); // Striped, so writers don't fight over one counter
+    private final LongAdder totalValue = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong(0);
+    private final AtomicLong minNonZeroValue = new AtomicLong(Long.MAX_VALUE);
+
+    // GETTERS & SETTERS
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public long getMinNonZero() { // 0 if nothing non-zero was recorded
+        long min = minNonZeroValue.get();
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) totalValue.sum() / count;
+    }
+
+    // METHODS
+    private static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1); // value >> shift is in [64, 128)
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) ((value >> shift) - SUB_BUCKET_HALF);
+    }
+
+    private static long highestValueAt(int index) { // Largest value that lands in this bucket
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(indexFor(value));
+        totalCount.increment();
+        totalValue.add(value);
+        maxValue.accumulateAndGet(value, Math::max);
+        if (value > 0) {
+            minNonZeroValue.accumulateAndGet(value, Math::min);
+        }
+    }
+
+    public void reset() { // Not atomic against concurrent writers, for histograms only one thread records into
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+        maxValue.set(0);
+        minNonZeroValue.set(Long.MAX_VALUE);
+    }
+
+    public void add(LatencyHistogram other) { // Merges other's recorded values into this one
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalValue.add(other.totalValue.sum());
+        maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+        minNonZeroValue.accumulateAndGet(other.minNonZeroValue.get(), Math::min);
+    }
+
+    public long getPercentile(double percentile) { // Reads a moving snapshot, never blocks writers
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), maxValue.get());
+            }
+        }
+        return maxValue.get(); // Writers got ahead of us while scanning
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.EnumMap;
+
+public class LatencyRecorder {
+    public enum MovementType {
+        LANDING, TAKEOFF, EMERGENCY
+    }
+
+    private final LatencyHistogram all = new LatencyHistogram();
+    private final EnumMap<MovementType, LatencyHistogram> byType = new EnumMap<>(MovementType.class);
+
+    // GETTERS & SETTERS
+    public LatencyHistogram getAll() {
+        return all;
+    }
+
+    public LatencyHistogram get(MovementType type) {
+        return byType.get(type);
+    }
+
+    // CONSTRUCTOR
+    public LatencyRecorder() {
+        for (MovementType type : MovementType.values()) {
+            byType.put(type, new LatencyHistogram()); // Filled up front, the map itself is never written again
+        }
+    }
+
+    // METHODS
+    public void record(MovementType type, long waitingTime) {
+        all.record(waitingTime);
+        byType.get(type).record(waitingTime);
+    }
+
+    public void reset() { // Same caveat as LatencyHistogram.reset()
+        all.reset();
+        for (LatencyHistogram histogram : byType.values()) {
+            histogram.reset();
+        }
+    }
+
+    public String describe(MovementType type) {
+        return describe(byType.get(type));
+    }
+
+    public static String describe(LatencyHistogram histogram) {
+        return String.format("n=%d p50=%d p90=%d p99=%d p99.9=%d max=%d ms",
+                histogram.getCount(), histogram.getPercentile(50), histogram.getPercentile(90),
+                histogram.getPercentile(99), histogram.getPercentile(99.9), histogram.getMax());
+    }
+}
@@ -0,0 +1,153 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+public class MetricsServer {
+    // Live numbers while the simulation runs: curl localhost:9090/metrics (Prometheus text format). Everything is
+    // read from counters and volatile fields the actors keep up to date anyway, a scrape never takes the ATC,
+    // queue, gate or dispatcher locks, so it can't slow the airport down or stall the VirtualClock.
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] QUANTILES = { "0.5", "0.9", "0.99", "0.999" };
+
+    private final HttpServer server;
+    private final ATC atc;
+    private final RunwayRequestQueue runwayRequestsQueue;
+    private final Runway[] runways;
+    private final GatePool gatePool;
+    private final RefuelDispatcher refuelDispatcher;
+    private final ServiceCrewPool crewPool;
+
+    // Previous scrape, for the grant rate. Guarded by this.
+    private long lastScrapeTime = -1;
+    private long lastGrantCount = 0;
+
+    // GETTERS & SETTERS
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // CONSTRUCTOR
+    public MetricsServer(int port, ATC atc, RunwayRequestQueue runwayRequestsQueue, Runway[] runways,
+            GatePool gatePool, RefuelDispatcher refuelDispatcher, ServiceCrewPool crewPool) {
+        this.atc = atc;
+        this.runwayRequestsQueue = runwayRequestsQueue;
+        this.runways = runways;
+        this.gatePool = gatePool;
+        this.refuelDispatcher = refuelDispatcher;
+        this.crewPool = crewPool;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open the metrics port " + port, e);
+        }
+        server.createContext("/metrics", this::handle);
+    }
+
+    // METHODS
+    public void start() {
+        server.start();
+        System.out.printf("[%s]: Metrics at http://localhost:%d/metrics\n", Thread.currentThread().getName(),
+                getPort());
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = snapshot().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public String snapshot() {
+        StringBuilder sb = new StringBuilder(4096);
+        long now = SimClock.get().now();
+        long startTime = atc.getStartTime();
+        gauge(sb, "airport_sim_time_ms", "Simulated time since ATC started", startTime > 0 ? now - startTime : 0);
+
+        header(sb, "atc_queue_depth", "gauge", "Requests waiting in each ATC lane");
+        sample(sb, "atc_queue_depth", "lane=\"emergency\"", runwayRequestsQueue.getEmergencyDepth());
+        sample(sb, "atc_queue_depth", "lane=\"takeoff\"", runwayRequestsQueue.getTakeoffDepth());
+        sample(sb, "atc_queue_depth", "lane=\"landing\"", runwayRequestsQueue.getLandingDepth());
+
+        header(sb, "runway_occupied", "gauge", "1 while a plane is using the runway");
+        for (Runway runway : runways) {
+            sample(sb, "runway_occupied", "runway=\"" + runway.getRunwayNo() + "\"",
+                    runway.isOccupied() ? 1 : 0);
+        }
+        header(sb, "runway_movements_total", "counter", "Landings and takeoffs handled by the runway");
+        for (Runway runway : runways) {
+            sample(sb, "runway_movements_total", "runway=\"" + runway.getRunwayNo() + "\"", runway.getMovements());
+        }
+
+        header(sb, "gates", "gauge", "Gates by state");
+        sample(sb, "gates", "state=\"free\"", gatePool.getFreeCount());
+        sample(sb, "gates", "state=\"reserved\"", gatePool.getReservedCount());
+        sample(sb, "gates", "state=\"occupied\"", gatePool.getOccupiedCount());
+        header(sb, "gate_state", "gauge", "Per gate: 0 free, 1 reserved, 2 occupied, 3 occupied and pre-assigned");
+        for (Gate gate : gatePool.getGates()) {
+            sample(sb, "gate_state", "gate=\"" + gate.getGateNo() + "\",terminal=\"" + gate.getTerminal() + "\"",
+                    gate.getPreassignedPlane() != null ? 3 : gate.isOccupied() ? 2 : gate.isReserved() ? 1 : 0);
+        }
+
+        gauge(sb, "refuel_backlog", "Refuel requests no truck has taken yet", refuelDispatcher.getBacklog());
+        gauge(sb, "service_backlog", "Docked planes no service crew has picked up yet", crewPool.getPendingCount());
+
+        gauge(sb, "planes_outstanding", "Planes started that haven't departed yet", atc.getOutstandingPlanes());
+
+        long grants = atc.getGrantCount();
+        header(sb, "atc_grants_total", "counter", "Landing and takeoff permissions granted");
+        sample(sb, "atc_grants_total", "phase=\"landing\"", atc.getPlanesLanded());
+        sample(sb, "atc_grants_total", "phase=\"takeoff\"", atc.getPlanesTakenOff());
+        double rate = 0;
+        synchronized (this) { // Scrapes come one at a time anyway, this just keeps the pair consistent
+            if (lastScrapeTime >= 0 && now > lastScrapeTime) {
+                rate = 1000.0 * (grants - lastGrantCount) / (now - lastScrapeTime);
+            } else if (startTime > 0 && now > startTime) {
+                rate = 1000.0 * grants / (now - startTime);
+            }
+            lastScrapeTime = now;
+            lastGrantCount = grants;
+        }
+        header(sb, "atc_grant_rate", "gauge", "Grants per simulated second since the previous scrape");
+        sb.append("atc_grant_rate ").append(String.format("%.3f", rate)).append('\n');
+
+        header(sb, "atc_wait_ms", "summary", "Request to grant waiting time on the SimClock");
+        for (LatencyRecorder.MovementType type : LatencyRecorder.MovementType.values()) {
+            appendSummary(sb, "atc_wait_ms", "type=\"" + type.name().toLowerCase() + "\"",
+                    atc.getWaitingTimes().get(type));
+        }
+        return sb.toString();
+    }
+
+    private static void appendSummary(StringBuilder sb, String name, String labels, LatencyHistogram histogram) {
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            sample(sb, name, labels + ",quantile=\"" + QUANTILES[i] + "\"", histogram.getPercentile(PERCENTILES[i]));
+        }
+        sample(sb, name + "_max", labels, histogram.getMax());
+        sample(sb, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, long value) {
+        header(sb, name, "gauge", help);
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+}
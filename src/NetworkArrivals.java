@@ -0,0 +1,89 @@
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+public class NetworkArrivals extends FlightSchedule {
+    // One airport's traffic in an AirportNetwork: its own originating flights merged with the flights other
+    // airports hand over through its bounded inbound queue. Only this airport's feeding thread reads it. A flight
+    // is only handed out once it's due before the current window's horizon, by then every flight that could
+    // arrive earlier has been queued (they take at least a window to get here).
+    private final AirportNetwork network;
+    private final int airport;
+    private final VirtualClock clock;
+    private final FlightSchedule origin; // First legs, arrival times on this airport's clock
+    private final ArrayBlockingQueue<NetworkFlight> inbound;
+    private final PriorityQueue<NetworkFlight> pending = new PriorityQueue<>(
+            Comparator.comparingLong(NetworkFlight::getArrivalTime).thenComparingLong(NetworkFlight::getFlightNo));
+    private final long firstFlightNo;
+    private long originFlights = 0;
+    private NetworkFlight nextOrigin = null;
+
+    // CONSTRUCTOR
+    public NetworkArrivals(AirportNetwork network, int airport, VirtualClock clock, FlightSchedule origin,
+            long firstFlightNo, int inboundCapacity) {
+        this.network = network;
+        this.airport = airport;
+        this.clock = clock;
+        this.origin = origin;
+        this.firstFlightNo = firstFlightNo;
+        this.inbound = new ArrayBlockingQueue<>(inboundCapacity);
+    }
+
+    // METHODS
+    boolean offer(NetworkFlight flight) { // Any airport's plane threads, false if the queue is full
+        return inbound.offer(flight);
+    }
+
+    @Override
+    public boolean hasNext() { // Waits on the clock, a window at a time, until a flight is due or the network is done
+        while (true) {
+            NetworkFlight flight;
+            while ((flight = inbound.poll()) != null) {
+                pending.add(flight);
+            }
+            long horizon = clock.getHorizon();
+            while (true) {
+                if (nextOrigin == null && origin.hasNext()) {
+                    nextOrigin = new NetworkFlight(origin.next(), firstFlightNo + originFlights++,
+                            network.getLegs());
+                }
+                if (nextOrigin == null || nextOrigin.getArrivalTime() >= horizon) {
+                    break;
+                }
+                pending.add(nextOrigin);
+                nextOrigin = null;
+            }
+            if (!pending.isEmpty() && pending.peek().getArrivalTime() < horizon) {
+                return true;
+            }
+            if (network.isFinished()) {
+                return false;
+            }
+            try {
+                clock.sleep(horizon - clock.now()); // Until the next window, inbound flights are drained then
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public ScheduledFlight next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return pending.poll();
+    }
+
+    @Override
+    public void departed(ScheduledFlight flight) { // The plane's thread, after takeoff
+        network.departed(airport, (NetworkFlight) flight);
+    }
+
+    @Override
+    public void close() {
+        origin.close();
+    }
+}
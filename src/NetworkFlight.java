@@ -0,0 +1,35 @@
+public class NetworkFlight extends ScheduledFlight {
+    // A flight through an AirportNetwork: the same aircraft lands, turns around and takes off at legsLeft
+    // airports in turn. Arrival times are on the destination's clock, which all start at 0 together.
+    private final long flightNo; // Network-wide, the plane numbers are per airport
+    private final int legsLeft; // Including this one
+
+    // GETTERS & SETTERS
+    public long getFlightNo() {
+        return flightNo;
+    }
+
+    public int getLegsLeft() {
+        return legsLeft;
+    }
+
+    // CONSTRUCTOR
+    public NetworkFlight(ScheduledFlight flight, long flightNo, int legsLeft) {
+        this(flight.getArrivalTime(), flight.isEmergency(), flight.getDisembarkingPassengers(),
+                flight.getBoardingPassengers(), flight.getServiceTimeMs(), flight.getRefuelTimeMs(), flightNo,
+                legsLeft);
+    }
+
+    private NetworkFlight(long arrivalTime, boolean emergency, int disembarkingPassengers, int boardingPassengers,
+            int serviceTimeMs, int refuelTimeMs, long flightNo, int legsLeft) {
+        super(arrivalTime, emergency, disembarkingPassengers, boardingPassengers, serviceTimeMs, refuelTimeMs);
+        this.flightNo = flightNo;
+        this.legsLeft = legsLeft;
+    }
+
+    // METHODS
+    public NetworkFlight nextLeg(long arrivalTime) { // Whoever boarded here gets off there
+        return new NetworkFlight(arrivalTime, false, getBoardingPassengers(), getBoardingPassengers(),
+                getServiceTimeMs(), getRefuelTimeMs(), flightNo, legsLeft - 1);
+    }
+}
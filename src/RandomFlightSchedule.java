@@ -0,0 +1,47 @@
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class RandomFlightSchedule extends FlightSchedule {
+    // The original traffic: random 0 to maxGapMs arrival gaps, 5th plane is the emergency
+    private static final int EMERGENCY_FLIGHT = 5;
+
+    private final Random arrivals;
+    private final Random passengers; // Null leaves the counts to AirplanePassengers, like before schedules
+    private final long flightCount; // Negative never runs out, for soak runs
+    private final int maxGapMs;
+    private long flightsMade = 0;
+    private long lastArrival = 0;
+
+    // GETTERS & SETTERS
+    @Override
+    public long getFlightCount() {
+        return flightCount;
+    }
+
+    // CONSTRUCTOR
+    public RandomFlightSchedule(Random arrivals, Random passengers, long flightCount, int maxGapMs) {
+        this.arrivals = arrivals;
+        this.passengers = passengers;
+        this.flightCount = flightCount;
+        this.maxGapMs = maxGapMs;
+    }
+
+    // METHODS
+    @Override
+    public boolean hasNext() {
+        return flightCount < 0 || flightsMade < flightCount;
+    }
+
+    @Override
+    public ScheduledFlight next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        flightsMade++;
+        lastArrival += arrivals.nextInt(maxGapMs + 1);
+        int off = passengers != null ? passengers.nextInt(1, 50) : -1;
+        int on = passengers != null ? passengers.nextInt(1, 50) : -1;
+        return new ScheduledFlight(lastArrival, flightsMade == EMERGENCY_FLIGHT, off, on,
+                ScheduledFlight.DEFAULT_SERVICE_MS, ScheduledFlight.DEFAULT_REFUEL_MS);
+    }
+}
@@ -0,0 +1,12 @@
+public class RealTimeClock extends SimClock {
+    // METHODS
+    @Override
+    public long now() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+}
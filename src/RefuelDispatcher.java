@@ -0,0 +1,235 @@
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+public class RefuelDispatcher {
+    // Move cost model used to pick a truck, not the time the move takes
+    private static final int BASE_MOVE_COST = 2; // Any move at all, a truck already at the gate costs 0
+    private static final int TERMINAL_CHANGE_COST = 5;
+
+    // Batching mode: an idle truck takes every pending request at once and drives one planned route
+    private final boolean batching;
+    private final long maxQueueWaitMs; // Requests waiting longer than this go to the front of the next route
+
+    private final RefuellingTruck[] trucks;
+    private final Thread[] truckThreads;
+
+    private final ActorMonitor monitor = new ActorMonitor();
+    // Everything below is guarded by monitor
+    private final ArrayDeque<Airplane> pendingRequests = new ArrayDeque<>();
+    private final HashMap<Airplane, Long> requestTimes = new HashMap<>();
+    private final List<RefuellingTruck> idleTrucks = new ArrayList<>();
+    private final HashMap<RefuellingTruck, Airplane> assignments = new HashMap<>();
+    private boolean closed = false;
+    private volatile int backlog = 0; // pendingRequests.size() as of the last change, readable without the monitor
+
+    // Queue-wait metrics, request until a truck is assigned
+    private long dispatchedRequests = 0;
+    private long totalQueueWait = 0;
+    private long maxQueueWait = 0;
+    private long startTime;
+
+    // GETTERS & SETTERS
+    public boolean isBatching() {
+        return batching;
+    }
+
+    public RefuellingTruck[] getTrucks() {
+        return trucks;
+    }
+
+    public int getPendingCount() {
+        monitor.lock();
+        try {
+            return pendingRequests.size();
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    public int getBacklog() { // Lock-free, may be a moment behind
+        return backlog;
+    }
+
+    // CONSTRUCTOR
+    public RefuelDispatcher(int truckCount, Gate startGate) {
+        this(truckCount, startGate, false, Long.MAX_VALUE);
+    }
+
+    public RefuelDispatcher(int truckCount, Gate startGate, boolean batching, long maxQueueWaitMs) {
+        this.batching = batching;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+        this.trucks = new RefuellingTruck[truckCount];
+        this.truckThreads = new Thread[truckCount];
+        for (int i = 0; i < truckCount; i++) {
+            trucks[i] = new RefuellingTruck(i + 1, this, startGate);
+        }
+    }
+
+    // METHODS
+    public void startFleet() {
+        startTime = SimClock.get().now();
+        for (int i = 0; i < trucks.length; i++) {
+            String name = trucks.length == 1 ? "Refuelling Truck" : "Refuelling Truck " + (i + 1);
+            truckThreads[i] = ActorRunner.start(trucks[i], name);
+        }
+    }
+
+    public void shutdownFleet() { // Once the airport is quiet, returns when every truck has logged off
+        for (RefuellingTruck truck : trucks) {
+            truck.killMyself();
+        }
+        monitor.lock();
+        try {
+            closed = true;
+            monitor.signalAll(); // Wake any truck waiting for a request, takeFor() hands it null
+        } finally {
+            monitor.unlock();
+        }
+        ActorRunner.joinAll(truckThreads);
+    }
+
+    public void add(Airplane airplane) {
+        monitor.lock();
+        try {
+            pendingRequests.add(airplane);
+            backlog = pendingRequests.size();
+            requestTimes.put(airplane, SimClock.get().now());
+            if (batching) {
+                monitor.signalAll(); // Any idle truck takes the whole lot
+            } else {
+                dispatch();
+            }
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    public Airplane takeFor(RefuellingTruck truck) throws InterruptedException { // Null once the fleet is shut down
+        monitor.lock();
+        try {
+            idleTrucks.add(truck);
+            dispatch();
+            while (!assignments.containsKey(truck) && !closed) {
+                monitor.await();
+            }
+            idleTrucks.remove(truck);
+            return assignments.remove(truck);
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    public List<Airplane> takeBatchFor(RefuellingTruck truck) throws InterruptedException { // Empty once shut down
+        List<Airplane> batch = new ArrayList<>();
+        monitor.lock();
+        try {
+            while (pendingRequests.isEmpty() && !closed) {
+                monitor.await();
+            }
+            if (closed) {
+                return batch;
+            }
+
+            long now = SimClock.get().now();
+            List<Airplane> sweep = new ArrayList<>();
+            for (Airplane airplane : pendingRequests) {
+                long queueWait = now - requestTimes.remove(airplane);
+                if (queueWait >= maxQueueWaitMs) {
+                    batch.add(airplane); // Waited long enough, goes first in FCFS order
+                } else {
+                    sweep.add(airplane);
+                }
+                dispatchedRequests++;
+                totalQueueWait += queueWait;
+                maxQueueWait = Math.max(maxQueueWait, queueWait);
+            }
+            pendingRequests.clear();
+            backlog = 0;
+            batch.addAll(planSweep(truck.getCurrentGate(), sweep));
+            return batch;
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    // Elevator-style route: gates from the truck's position upwards, then the ones below it on the way back down.
+    // Planes at the same gate end up next to each other, so each gate is visited once.
+    private static List<Airplane> planSweep(Gate from, List<Airplane> airplanes) {
+        int start = from.getGateNo();
+        List<Airplane> up = new ArrayList<>();
+        List<Airplane> down = new ArrayList<>();
+        for (Airplane airplane : airplanes) {
+            if (airplane.getAssignedGate().getGateNo() >= start) {
+                up.add(airplane);
+            } else {
+                down.add(airplane);
+            }
+        }
+        Comparator<Airplane> byGate = Comparator.comparingInt(a -> a.getAssignedGate().getGateNo());
+        up.sort(byGate);
+        down.sort(byGate.reversed());
+        up.addAll(down);
+        return up;
+    }
+
+    private void dispatch() { // Caller holds monitor. Oldest request first, to the cheapest idle truck.
+        boolean assigned = false;
+        while (!pendingRequests.isEmpty() && !idleTrucks.isEmpty()) {
+            Airplane airplane = pendingRequests.poll();
+            RefuellingTruck best = null;
+            int bestCost = Integer.MAX_VALUE;
+            for (RefuellingTruck truck : idleTrucks) {
+                int cost = moveCost(truck.getCurrentGate(), airplane.getAssignedGate());
+                if (cost < bestCost) {
+                    best = truck;
+                    bestCost = cost;
+                }
+            }
+            idleTrucks.remove(best);
+            assignments.put(best, airplane);
+            backlog = pendingRequests.size();
+
+            long queueWait = SimClock.get().now() - requestTimes.remove(airplane);
+            dispatchedRequests++;
+            totalQueueWait += queueWait;
+            maxQueueWait = Math.max(maxQueueWait, queueWait);
+            assigned = true;
+        }
+        if (assigned) {
+            monitor.signalAll();
+        }
+    }
+
+    private static int moveCost(Gate from, Gate to) {
+        if (from == to) {
+            return 0; // Already there, no move needed
+        }
+        int cost = BASE_MOVE_COST + Math.abs(from.getGateNo() - to.getGateNo());
+        if (from.getTerminal() != to.getTerminal()) {
+            cost += TERMINAL_CHANGE_COST;
+        }
+        return cost;
+    }
+
+    public void printStatistics(PrintStream out) {
+        long elapsed = Math.max(1, SimClock.get().now() - startTime);
+        out.println("---------------------------- Refuelling Fleet Statistics ----------------------------");
+        monitor.lock();
+        try {
+            out.printf("[%s]: Refuel requests dispatched: %d, average queue wait: %.2f ms, max: %d ms\n",
+                    Thread.currentThread().getName(), dispatchedRequests,
+                    dispatchedRequests == 0 ? 0.0 : (double) totalQueueWait / dispatchedRequests, maxQueueWait);
+        } finally {
+            monitor.unlock();
+        }
+        for (RefuellingTruck truck : trucks) {
+            out.printf("[%s]: Truck %d refuelled %d planes, %d gate moves, utilization %.1f%%\n",
+                    Thread.currentThread().getName(), truck.getTruckNo(), truck.getPlanesRefuelled(),
+                    truck.getGateMoves(), 100.0 * truck.getBusyTime() / elapsed);
+        }
+    }
+}
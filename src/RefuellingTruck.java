@@ -3,85 +3,94 @@ import java.util.concurrent.Semaphore;
 
 public class RefuellingTruck implements Runnable {
     private final Semaphore refuellingTruckLock = new Semaphore(1);
-    private Gate currentGate;
-    private List<Airplane> refuelRequestQueue;
+    private final int truckNo;
+    private volatile Gate currentGate; // Read by the dispatcher while the truck is idle
+    private final RefuelDispatcher refuelDispatcher;
     private Airplane airplaneToRefuel;
 
     private volatile boolean running = true;
 
+    // Utilization metrics
+    private volatile long busyTime = 0; // Moving + refuelling, on the SimClock
+    private volatile int planesRefuelled = 0;
+    private volatile int gateMoves = 0;
+
     // GETTERS & SETTERS
+    public int getTruckNo() {
+        return truckNo;
+    }
+
+    public Gate getCurrentGate() {
+        return currentGate;
+    }
+
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    public int getPlanesRefuelled() {
+        return planesRefuelled;
+    }
+
+    public int getGateMoves() {
+        return gateMoves;
+    }
+
     // CONSTRUCTOR
-    public RefuellingTruck(List<Airplane> refuelRequestQueue, Gate currentGate) {
-        this.refuelRequestQueue = refuelRequestQueue;
+    public RefuellingTruck(int truckNo, RefuelDispatcher refuelDispatcher, Gate currentGate) {
+        this.truckNo = truckNo;
+        this.refuelDispatcher = refuelDispatcher;
         this.currentGate = currentGate;
     }
 
     // METHODS
-    public void killMyself() {
+    public void killMyself() { // RefuelDispatcher.shutdownFleet() wakes the truck afterwards
         running = false;
-        synchronized (refuelRequestQueue) {
-            refuelRequestQueue.notifyAll(); // Notify in case the truck is waiting for requests
-        }
     }
+
     private Airplane nextAirplaneToRefuel() throws InterruptedException {
-        synchronized (refuelRequestQueue) {
-            while (refuelRequestQueue.isEmpty() && running) {
-                refuelRequestQueue.wait();
-            }
-            if (!running) {
-                throw new InterruptedException("Refuelling Truck is terminating.");
-            }
-            return refuelRequestQueue.remove(0);
+        Airplane airplane = refuelDispatcher.takeFor(this); // Waits until the dispatcher picks this truck
+        if (airplane == null || !running) {
+            throw new InterruptedException("Refuelling Truck is terminating.");
         }
+        return airplane;
     }
     public void moveToGate() {
 
         if (currentGate != airplaneToRefuel.getAssignedGate()) {
             try {
                 // Simulate time taken to move to gate
-                System.out.printf("[%s @ Gate %d]: Refuelling truck is moving to Gate %d to refuel Plane %d. \n",
-                        Thread.currentThread().getName(),
-                        currentGate.getGateNo(),
-                        airplaneToRefuel.getAssignedGate().getGateNo(),
-                        airplaneToRefuel.getPlaneNo());
+                EventLog.log(EventType.TRUCK_MOVING, currentGate.getGateNo(),
+                        airplaneToRefuel.getAssignedGate().getGateNo(), airplaneToRefuel.getPlaneNo());
 
-                Thread.sleep(1000);
+                SimClock.get().sleep(1000);
                 currentGate = airplaneToRefuel.getAssignedGate();
+                gateMoves++;
             } catch (InterruptedException e) {
                 e.printStackTrace();
                 Thread.currentThread().interrupt();
             }
         }
-        System.out.printf("[%s @ Gate %d]: Refuelling truck is at Gate %d. Proceeding with refuelling.\n",
-                Thread.currentThread().getName(),
-                currentGate.getGateNo(),
-                currentGate.getGateNo());
+        EventLog.log(EventType.TRUCK_ARRIVED, currentGate.getGateNo(), currentGate.getGateNo());
 
     }
 
     public void refuelPlane() {
-        System.out.printf("[%s @ Gate %d]: Refuelling truck is refuelling Plane %d at Gate %d. \n",
-                Thread.currentThread().getName(),
-                currentGate.getGateNo(),
-                currentGate.getDockedPlane().getPlaneNo(),
+        EventLog.log(EventType.TRUCK_REFUELLING, currentGate.getGateNo(), currentGate.getDockedPlane().getPlaneNo(),
                 currentGate.getGateNo());
 
         try {
-            Thread.sleep(2000); // Simulate time taken to refuel
+            SimClock.get().sleep(currentGate.getDockedPlane().getRefuelTimeMs()); // Simulate time taken to refuel
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
 
-        System.out.printf("[%s @ Gate %d]: Refuelling truck has finished refuelling Plane %d at Gate %d. \n",
-                Thread.currentThread().getName(),
-                currentGate.getGateNo(),
-                currentGate.getDockedPlane().getPlaneNo(),
+        EventLog.log(EventType.TRUCK_REFUELLED, currentGate.getGateNo(), currentGate.getDockedPlane().getPlaneNo(),
                 currentGate.getGateNo());
 
-        currentGate.getDockedPlane().setRefuelled(true);
-        synchronized (airplaneToRefuel) {
-            airplaneToRefuel.notifyAll(); // Notify plane that refuelling is complete
-        }
+        FlightJournal.record(FlightJournal.Kind.REFUEL, null, currentGate.getDockedPlane().getPlaneNo(),
+                currentGate.getGateNo(), 0, truckNo);
+        currentGate.getDockedPlane().getTurnaround().complete(TurnaroundStage.REFUEL);
     }
 
     public void acquireRefuellingTruck() throws InterruptedException {
@@ -93,16 +102,38 @@ public class RefuellingTruck implements Runnable {
 
     }
 
+    private void serviceAirplane(Airplane airplane) throws InterruptedException {
+        airplaneToRefuel = airplane;
+        acquireRefuellingTruck();
+        long busyStart = SimClock.get().now();
+        airplane.getTurnaround().start(TurnaroundStage.REFUEL); // Driving over counts as part of refuelling
+        moveToGate();
+        refuelPlane();
+        planesRefuelled++;
+        busyTime += SimClock.get().now() - busyStart;
+        releaseRefuellingTruck();
+    }
+
+    private void serviceBatch() throws InterruptedException {
+        List<Airplane> route = refuelDispatcher.takeBatchFor(this); // Already in driving order
+        if (route.isEmpty() || !running) {
+            throw new InterruptedException("Refuelling Truck is terminating.");
+        }
+        EventLog.log(EventType.TRUCK_BATCH, currentGate.getGateNo(), route.size());
+        for (Airplane airplane : route) {
+            serviceAirplane(airplane);
+        }
+    }
+
     @Override
     public void run() {
         while (true) {
             try {
-                airplaneToRefuel = nextAirplaneToRefuel();
-
-                acquireRefuellingTruck();
-                moveToGate();
-                refuelPlane();
-                releaseRefuellingTruck();
+                if (refuelDispatcher.isBatching()) {
+                    serviceBatch();
+                } else {
+                    serviceAirplane(nextAirplaneToRefuel());
+                }
             } catch (InterruptedException e) {
                 if (!running) {
                     break;
@@ -110,7 +141,7 @@ public class RefuellingTruck implements Runnable {
                 Thread.currentThread().interrupt();
             }
         }
-        System.out.println("Refuelling Truck is terminating.");
+        EventLog.log(EventType.TRUCK_TERMINATING);
         return;
     }
 }
@@ -1,26 +1,72 @@
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Runway {
+    private final int runwayNo;
     private final Semaphore runwayLock = new Semaphore(1);
+    private final AtomicInteger movements = new AtomicInteger(0); // Landings + takeoffs handled by this runway
+    private RunwayTimeline timeline = null; // Slot booking instead of the semaphore, null keeps the semaphore
 
     // GETTERS & SETTERS
+    public int getRunwayNo() {
+        return runwayNo;
+    }
+
+    public int getMovements() {
+        return movements.get();
+    }
+
+    public RunwayTimeline getTimeline() {
+        return timeline;
+    }
+
+    public void enableSlots(long wakeStepMs) { // Before the ATC is started
+        this.timeline = new RunwayTimeline(wakeStepMs);
+    }
+
     // CONSTRUCTOR
+    public Runway(int runwayNo) {
+        this.runwayNo = runwayNo;
+    }
+
     // METHODS
     public void acquireRunway() throws InterruptedException {
 
         runwayLock.acquire();
+        movements.incrementAndGet();
 
     }
 
     public boolean tryAcquireRunway() { 
-        return runwayLock.tryAcquire();
+        if (runwayLock.tryAcquire()) {
+            movements.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public void bookSlot(long start, long durationMs, WakeCategory category) { // ATC, slot mode
+        timeline.book(start, durationMs, category, SimClock.get().now());
+        movements.incrementAndGet();
     }
 
     public void releaseRunway() {
-        runwayLock.release();
+        if (timeline == null) { // A booked slot just runs out
+            runwayLock.release();
+        }
+    }
+
+    public boolean isOccupied() { // A plane is on it right now, a slot booked for later doesn't count
+        if (timeline != null) {
+            return timeline.isOccupied(SimClock.get().now());
+        }
+        return runwayLock.availablePermits() == 0;
     }
 
-    public boolean isRunwayAvailable() {
+    public boolean isRunwayAvailable() { // With slots: nothing in progress or booked from now on
+        if (timeline != null) {
+            return timeline.getLastEnd() <= SimClock.get().now();
+        }
         return runwayLock.availablePermits() > 0;
     }
 }
@@ -0,0 +1,139 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+public class RunwayRequestQueue {
+    // One FCFS lane per kind of request. LinkedHashMap keeps arrival order and gives O(1) add/remove-by-plane,
+    // the value is a global sequence number so landings and takeoffs can still be compared for FCFS.
+    private final LinkedHashMap<Airplane, Long> emergencyLane = new LinkedHashMap<>();
+    private final LinkedHashMap<Airplane, Long> takeoffLane = new LinkedHashMap<>();
+    private final LinkedHashMap<Airplane, Long> landingLane = new LinkedHashMap<>();
+    private final LinkedHashMap<Airplane, Long> unacknowledged = new LinkedHashMap<>(); // Not looked at by ATC yet
+    private long nextSequence = 0;
+
+    // Lane sizes as of the last change, for readers that mustn't take the queue lock (MetricsServer)
+    private volatile int emergencyDepth = 0;
+    private volatile int takeoffDepth = 0;
+    private volatile int landingDepth = 0;
+
+    // GETTERS & SETTERS
+    public synchronized int size() {
+        return emergencyLane.size() + takeoffLane.size() + landingLane.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getEmergencyDepth() {
+        return emergencyDepth;
+    }
+
+    public int getTakeoffDepth() {
+        return takeoffDepth;
+    }
+
+    public int getLandingDepth() {
+        return landingDepth;
+    }
+
+    // METHODS
+    private LinkedHashMap<Airplane, Long> laneFor(Airplane airplane) {
+        switch (airplane.getPhase()) {
+            case EMERGENCY_LANDING:
+                return emergencyLane;
+            case TAKEOFF:
+                return takeoffLane;
+            default:
+                return landingLane;
+        }
+    }
+
+    private static Airplane head(LinkedHashMap<Airplane, Long> lane) {
+        Iterator<Airplane> it = lane.keySet().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    public synchronized void add(Airplane airplane) {
+        long sequence = nextSequence++;
+        laneFor(airplane).put(airplane, sequence);
+        unacknowledged.put(airplane, sequence);
+        publishDepths();
+    }
+
+    public synchronized boolean remove(Airplane airplane) {
+        unacknowledged.remove(airplane);
+        boolean removed = emergencyLane.remove(airplane) != null
+                || takeoffLane.remove(airplane) != null
+                || landingLane.remove(airplane) != null;
+        publishDepths();
+        return removed;
+    }
+
+    private void publishDepths() { // Caller holds the lock
+        emergencyDepth = emergencyLane.size();
+        takeoffDepth = takeoffLane.size();
+        landingDepth = landingLane.size();
+    }
+
+    public synchronized Airplane peekEmergency() {
+        return head(emergencyLane);
+    }
+
+    public synchronized Airplane peekTakeoff() {
+        return head(takeoffLane);
+    }
+
+    public synchronized Airplane peekLanding() {
+        return head(landingLane);
+    }
+
+    public synchronized Airplane peekLanding(ToLongFunction<Airplane> cost) { // Cheapest landing, earliest on ties
+        Airplane best = null;
+        long bestCost = Long.MAX_VALUE;
+        for (Airplane airplane : landingLane.keySet()) {
+            long c = cost.applyAsLong(airplane);
+            if (c < bestCost) {
+                best = airplane;
+                bestCost = c;
+            }
+        }
+        return best;
+    }
+
+    public synchronized Airplane peekFirstCome() { // Earliest non-emergency request, landing or takeoff
+        Airplane landing = head(landingLane);
+        Airplane takeoff = head(takeoffLane);
+        if (landing == null) {
+            return takeoff;
+        } else if (takeoff == null) {
+            return landing;
+        }
+        return landingLane.get(landing) < takeoffLane.get(takeoff) ? landing : takeoff;
+    }
+
+    public synchronized Airplane pollUnacknowledged() { // Requests ATC hasn't responded to yet, oldest first
+        Airplane airplane = head(unacknowledged);
+        if (airplane != null) {
+            unacknowledged.remove(airplane);
+        }
+        return airplane;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendLane(sb, "Emergency", emergencyLane);
+        appendLane(sb, " || Takeoff", takeoffLane);
+        appendLane(sb, " || Landing", landingLane);
+        return sb.toString();
+    }
+
+    private static void appendLane(StringBuilder sb, String name, Map<Airplane, Long> lane) {
+        sb.append(String.format("%s(size=%d): ", name, lane.size()));
+        for (Airplane p : lane.keySet()) {
+            sb.append(String.format("%d(%s), ", p.getPlaneNo(), p.getPhase()));
+        }
+    }
+}
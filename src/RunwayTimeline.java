@@ -0,0 +1,74 @@
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class RunwayTimeline {
+    // Future bookings of one runway. ATC books each landing or takeoff into the earliest slot that fits between
+    // the ones already booked, with the wake turbulence separation the movement before it needs (and the one
+    // after it, when it fills a gap). Only the ATC thread books, the lock is for readers like MetricsServer.
+    private final long wakeStepMs; // Per WakeCategory separation step, 0 turns separation off
+    private final TreeMap<Long, Slot> slots = new TreeMap<>(); // By start, never overlapping
+    private long lastEnd = 0;
+    private long occupiedMs = 0; // Booked in total, for the utilization
+
+    private static class Slot {
+        private final long start;
+        private final long end;
+        private final WakeCategory category;
+
+        Slot(long start, long end, WakeCategory category) {
+            this.start = start;
+            this.end = end;
+            this.category = category;
+        }
+    }
+
+    // GETTERS & SETTERS
+    public synchronized long getLastEnd() { // When the last booked movement is off the runway
+        return lastEnd;
+    }
+
+    public synchronized long getOccupiedMs() {
+        return occupiedMs;
+    }
+
+    // CONSTRUCTOR
+    public RunwayTimeline(long wakeStepMs) {
+        this.wakeStepMs = wakeStepMs;
+    }
+
+    // METHODS
+    private long separation(WakeCategory leader, WakeCategory follower) {
+        return leader.separationSteps(follower) * wakeStepMs;
+    }
+
+    public synchronized long earliestStart(long notBefore, long durationMs, WakeCategory category) {
+        long start = notBefore;
+        for (Slot slot : slots.values()) { // Few of them, the past is pruned on every booking
+            if (start + durationMs + separation(category, slot.category) <= slot.start) {
+                break; // Fits in the gap before this one
+            }
+            start = Math.max(start, slot.end + separation(slot.category, category));
+        }
+        return start;
+    }
+
+    public synchronized void book(long start, long durationMs, WakeCategory category, long now) {
+        Iterator<Slot> it = slots.values().iterator();
+        while (it.hasNext()) { // Done long enough ago that no separation can reach past it
+            Slot slot = it.next();
+            if (slot.end + separation(slot.category, WakeCategory.LIGHT) >= now) {
+                break;
+            }
+            it.remove();
+        }
+        slots.put(start, new Slot(start, start + durationMs, category));
+        lastEnd = Math.max(lastEnd, start + durationMs);
+        occupiedMs += durationMs;
+    }
+
+    public synchronized boolean isOccupied(long now) {
+        Map.Entry<Long, Slot> current = slots.floorEntry(now);
+        return current != null && current.getValue().end > now;
+    }
+}
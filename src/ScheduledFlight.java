@@ -0,0 +1,48 @@
+public class ScheduledFlight {
+    // One line of a traffic schedule. Passenger counts of -1 are left to AirplanePassengers to pick at random.
+    public static final int DEFAULT_SERVICE_MS = 3000;
+    public static final int DEFAULT_REFUEL_MS = 2000;
+
+    private final long arrivalTime; // Ms after the airport opens
+    private final boolean emergency;
+    private final int disembarkingPassengers;
+    private final int boardingPassengers;
+    private final int serviceTimeMs;
+    private final int refuelTimeMs;
+
+    // GETTERS & SETTERS
+    public long getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public boolean isEmergency() {
+        return emergency;
+    }
+
+    public int getDisembarkingPassengers() {
+        return disembarkingPassengers;
+    }
+
+    public int getBoardingPassengers() {
+        return boardingPassengers;
+    }
+
+    public int getServiceTimeMs() {
+        return serviceTimeMs;
+    }
+
+    public int getRefuelTimeMs() {
+        return refuelTimeMs;
+    }
+
+    // CONSTRUCTOR
+    public ScheduledFlight(long arrivalTime, boolean emergency, int disembarkingPassengers, int boardingPassengers,
+            int serviceTimeMs, int refuelTimeMs) {
+        this.arrivalTime = arrivalTime;
+        this.emergency = emergency;
+        this.disembarkingPassengers = disembarkingPassengers;
+        this.boardingPassengers = boardingPassengers;
+        this.serviceTimeMs = serviceTimeMs;
+        this.refuelTimeMs = refuelTimeMs;
+    }
+}
@@ -0,0 +1,32 @@
+public interface SchedulingPolicy {
+    // Which ordinary landing or takeoff request ATC tries next. Emergencies first, and takeoffs first while every
+    // gate is taken, stay with ATC whatever the policy: the first is safety, the second keeps the airport from
+    // stalling. The policy is only asked when the queue has landings or takeoffs and neither rule applies. Both
+    // methods are only called by the ATC thread, so policies can keep plain state.
+
+    // METHODS
+    Airplane select(RunwayRequestQueue queue); // Doesn't take the plane off the queue
+
+    default void granted(Airplane airplane) { // Every grant, emergencies and takeoff-priority ones included
+    }
+
+    static SchedulingPolicy parse(String name) { // "fcfs", "shortest-turnaround", "alternating",
+                                                 // "weighted-fair[:landing:takeoff]", null is fcfs
+        if (name == null || name.equalsIgnoreCase("fcfs")) {
+            return new FcfsPolicy();
+        }
+        String[] parts = name.trim().toLowerCase().split(":");
+        switch (parts[0]) {
+            case "shortest-turnaround":
+                return new ShortestTurnaroundPolicy();
+            case "alternating":
+                return new AlternatingPolicy();
+            case "weighted-fair":
+                return parts.length == 3
+                        ? new WeightedFairPolicy(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]))
+                        : new WeightedFairPolicy(1, 1);
+            default:
+                throw new IllegalArgumentException("Unknown scheduling policy: " + name);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServiceCrewPool {
+    // Service crews shared by the whole apron instead of one per gate. Docked planes go into their terminal's
+    // work queue, a crew serves its home terminal first and steals from the other terminals when that is empty.
+    static class ServiceRequest {
+        final Airplane airplane;
+        final Gate gate;
+        final int terminalIndex;
+        final long requestedAt; // On the SimClock
+
+        ServiceRequest(Airplane airplane, Gate gate, int terminalIndex, long requestedAt) {
+            this.airplane = airplane;
+            this.gate = gate;
+            this.terminalIndex = terminalIndex;
+            this.requestedAt = requestedAt;
+        }
+    }
+
+    private final GateServiceCrew[] crews;
+    private final Thread[] crewThreads;
+    private final List<ConcurrentLinkedQueue<ServiceRequest>> queues = new ArrayList<>(); // One per terminal
+    private final TreeMap<Integer, Integer> terminalIndex = new TreeMap<>(); // Terminal no -> queue index
+
+    // Idle crews park on the monitor, the queues themselves are lock-free
+    private final ActorMonitor monitor = new ActorMonitor();
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private volatile boolean closed = false;
+
+    private final LatencyHistogram queueLatency = new LatencyHistogram(); // Docked until a crew picked it up
+    private long startTime;
+
+    // GETTERS & SETTERS
+    public GateServiceCrew[] getCrews() {
+        return crews;
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    // CONSTRUCTOR
+    public ServiceCrewPool(Gate[] gates, int crewCount) {
+        for (Gate gate : gates) {
+            if (!terminalIndex.containsKey(gate.getTerminal())) {
+                terminalIndex.put(gate.getTerminal(), queues.size());
+                queues.add(new ConcurrentLinkedQueue<>());
+            }
+            gate.setServiceCrewPool(this);
+        }
+
+        Integer[] terminals = terminalIndex.keySet().toArray(new Integer[0]);
+        this.crews = new GateServiceCrew[crewCount];
+        this.crewThreads = new Thread[crewCount];
+        for (int i = 0; i < crewCount; i++) { // Home terminals round-robin, like the gates
+            int terminal = terminals[i % terminals.length];
+            crews[i] = new GateServiceCrew(i + 1, terminal, terminalIndex.get(terminal), this);
+        }
+    }
+
+    // METHODS
+    public void startCrews() {
+        startTime = SimClock.get().now();
+        for (int i = 0; i < crews.length; i++) {
+            crewThreads[i] = ActorRunner.start(crews[i], "Service Crew " + (i + 1));
+        }
+    }
+
+    public void shutdownCrews() { // Returns when every crew has logged off
+        monitor.lock();
+        try {
+            closed = true;
+            monitor.signalAll();
+        } finally {
+            monitor.unlock();
+        }
+        ActorRunner.joinAll(crewThreads);
+    }
+
+    public Thread[] getCrewThreads() {
+        return crewThreads;
+    }
+
+    public void submit(Airplane airplane, Gate gate) { // On docking
+        int index = terminalIndex.get(gate.getTerminal());
+        queues.get(index).add(new ServiceRequest(airplane, gate, index, SimClock.get().now()));
+        pending.incrementAndGet();
+        monitor.lock();
+        try {
+            monitor.signalAll();
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    ServiceRequest take(GateServiceCrew crew) throws InterruptedException { // Null once the pool is shut down
+        while (true) {
+            ServiceRequest request = poll(crew.getHomeIndex());
+            if (request != null) {
+                pending.decrementAndGet();
+                queueLatency.record(SimClock.get().now() - request.requestedAt);
+                return request;
+            }
+
+            monitor.lock();
+            try {
+                while (pending.get() == 0 && !closed) { // submit() bumps pending before it signals
+                    monitor.await();
+                }
+                if (pending.get() == 0) {
+                    return null;
+                }
+            } finally {
+                monitor.unlock();
+            }
+        }
+    }
+
+    private ServiceRequest poll(int homeIndex) { // Home terminal first, then steal going round the others
+        for (int i = 0; i < queues.size(); i++) {
+            ServiceRequest request = queues.get((homeIndex + i) % queues.size()).poll();
+            if (request != null) {
+                return request;
+            }
+        }
+        return null;
+    }
+
+    public void printStatistics(PrintStream out) {
+        long elapsed = Math.max(1, SimClock.get().now() - startTime);
+        out.println("------------------------------ Service Crew Statistics ------------------------------");
+        out.printf("[%s]: Service queue latency: %s\n", Thread.currentThread().getName(),
+                LatencyRecorder.describe(queueLatency));
+        for (GateServiceCrew crew : crews) {
+            out.printf("[%s]: Crew %d (Terminal %d) serviced %d planes, %d stolen from other terminals, "
+                    + "utilization %.1f%%\n", Thread.currentThread().getName(), crew.getCrewNo(),
+                    crew.getHomeTerminal(), crew.getPlanesServiced(), crew.getPlanesStolen(),
+                    100.0 * crew.getBusyTime() / elapsed);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+public class ShortestTurnaroundPolicy implements SchedulingPolicy {
+    // Takeoffs and landings stay first come first served against each other, but when it's a landing's turn the
+    // one with the shortest expected turnaround gets it. Its gate comes free again soonest, so more planes get
+    // through the gates. Like shortest job first it would starve long turnarounds under steady traffic, so a
+    // landing that has waited STARVATION_MS goes in arrival order again.
+    static final long STARVATION_MS = 20000;
+
+    // METHODS
+    @Override
+    public Airplane select(RunwayRequestQueue queue) {
+        Airplane first = queue.peekFirstCome();
+        if (first == null || first.getPhase() == FlightPhase.TAKEOFF
+                || SimClock.get().now() - first.getRequestTime() >= STARVATION_MS) {
+            return first;
+        }
+        return queue.peekLanding(ShortestTurnaroundPolicy::expectedTurnaround);
+    }
+
+    static long expectedTurnaround(Airplane airplane) { // Longest branch of the stage graph, waits not counted
+        long passengers = 2 * GatePlanner.DEFAULT_PASSENGER_MS; // Disembark then board
+        return Math.max(passengers, Math.max(airplane.getServiceTimeMs(), airplane.getRefuelTimeMs()));
+    }
+
+    @Override
+    public String toString() {
+        return "shortest-turnaround";
+    }
+}
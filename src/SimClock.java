@@ -0,0 +1,54 @@
+public abstract class SimClock {
+    // Everything that needs the time or has to wait for some time goes through the installed clock, so the same
+    // actors can run in real time or in virtual time.
+    private static volatile SimClock current = new RealTimeClock();
+    // An AirportNetwork runs one clock per airport. Those threads are bound to their airport's clock, and
+    // everything else (and a single airport) keeps using the installed one without the ThreadLocal lookup.
+    private static final ThreadLocal<SimClock> bound = new ThreadLocal<>();
+    private static volatile boolean anyBound = false;
+
+    // GETTERS & SETTERS
+    public static SimClock get() {
+        if (anyBound) {
+            SimClock clock = bound.get();
+            if (clock != null) {
+                return clock;
+            }
+        }
+        return current;
+    }
+
+    public static void bind(SimClock clock) { // This thread only, instead of install()
+        anyBound = true;
+        bound.set(clock);
+    }
+
+    static void inherit(SimClock clock) { // ActorRunner, an actor thread uses the clock of whoever started it
+        if (anyBound) {
+            bound.set(clock);
+        }
+    }
+
+    public static void install(SimClock clock) { // Before any actor is started
+        current = clock;
+    }
+
+    // METHODS
+    public abstract long now(); // Milliseconds
+
+    public abstract void sleep(long millis) throws InterruptedException;
+
+    // Bookkeeping so a virtual clock knows when every actor is stuck waiting and time can move on.
+    // ActorRunner and ActorMonitor call these, the real-time clock ignores them.
+    public void actorStarted() {
+    }
+
+    public void actorFinished() {
+    }
+
+    public void actorBlocked() {
+    }
+
+    public void actorsResumed(int count) {
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class Turnaround {
+    // One plane's stay at a gate as a small DAG of TurnaroundStages. Crews, trucks and passengers start and
+    // complete their own stage, the last stage to finish signals the plane, exactly once.
+    private static final TurnaroundStage[] STAGES = TurnaroundStage.values();
+    private static final TurnaroundStage[][] DEPENDENTS = new TurnaroundStage[STAGES.length][];
+
+    static {
+        for (TurnaroundStage stage : STAGES) {
+            DEPENDENTS[stage.ordinal()] = stage.getDependents().toArray(new TurnaroundStage[0]);
+        }
+    }
+
+    private final Airplane airplane;
+    private final long dockedAt; // On the SimClock
+    private final AtomicLongArray startedAt = new AtomicLongArray(STAGES.length); // -1 until started
+    private final AtomicLongArray finishedAt = new AtomicLongArray(STAGES.length); // -1 until done
+    private final AtomicIntegerArray pendingDependencies = new AtomicIntegerArray(STAGES.length);
+    private final AtomicInteger remainingStages = new AtomicInteger(STAGES.length);
+    private final ActorMonitor stageMonitor = new ActorMonitor(); // Actors waiting for a stage's dependencies
+    private final CompletableFuture<Turnaround> completion = new CompletableFuture<>();
+
+    // GETTERS & SETTERS
+    public Airplane getAirplane() {
+        return airplane;
+    }
+
+    public long getDockedAt() {
+        return dockedAt;
+    }
+
+    public CompletableFuture<Turnaround> getCompletion() { // For observers, actors wait through their monitors
+        return completion;
+    }
+
+    public long getWaitTime(TurnaroundStage stage) { // Docked (or dependencies done) until someone started it
+        return startedAt.get(stage.ordinal()) - readyAt(stage);
+    }
+
+    public long getStartedAt(TurnaroundStage stage) { // -1 until started
+        return startedAt.get(stage.ordinal());
+    }
+
+    public long getFinishedAt(TurnaroundStage stage) { // -1 until done
+        return finishedAt.get(stage.ordinal());
+    }
+
+    public long getDuration(TurnaroundStage stage) {
+        return finishedAt.get(stage.ordinal()) - startedAt.get(stage.ordinal());
+    }
+
+    public long getTotalTime() {
+        long last = dockedAt;
+        for (TurnaroundStage stage : STAGES) {
+            last = Math.max(last, finishedAt.get(stage.ordinal()));
+        }
+        return last - dockedAt;
+    }
+
+    // CONSTRUCTOR
+    public Turnaround(Airplane airplane) {
+        this.airplane = airplane;
+        this.dockedAt = SimClock.get().now();
+        for (TurnaroundStage stage : STAGES) {
+            startedAt.set(stage.ordinal(), -1);
+            finishedAt.set(stage.ordinal(), -1);
+            pendingDependencies.set(stage.ordinal(), stage.getDependencies().length);
+        }
+    }
+
+    // METHODS
+    public boolean isReady(TurnaroundStage stage) {
+        return pendingDependencies.get(stage.ordinal()) == 0;
+    }
+
+    public boolean isStarted(TurnaroundStage stage) {
+        return startedAt.get(stage.ordinal()) >= 0;
+    }
+
+    public boolean isDone(TurnaroundStage stage) {
+        return finishedAt.get(stage.ordinal()) >= 0;
+    }
+
+    public boolean isComplete() {
+        return remainingStages.get() == 0;
+    }
+
+    public void awaitReady(TurnaroundStage stage) throws InterruptedException {
+        if (isReady(stage)) {
+            return;
+        }
+        stageMonitor.lock();
+        try {
+            while (!isReady(stage)) {
+                stageMonitor.await();
+            }
+        } finally {
+            stageMonitor.unlock();
+        }
+    }
+
+    public void start(TurnaroundStage stage) {
+        if (!isReady(stage)) {
+            throw new IllegalStateException(stage + " of Plane " + airplane.getPlaneNo() + " started too early");
+        }
+        startedAt.compareAndSet(stage.ordinal(), -1, SimClock.get().now());
+    }
+
+    public void complete(TurnaroundStage stage) {
+        long now = SimClock.get().now();
+        startedAt.compareAndSet(stage.ordinal(), -1, now); // Never explicitly started, took no time
+        if (!finishedAt.compareAndSet(stage.ordinal(), -1, now)) {
+            throw new IllegalStateException(stage + " of Plane " + airplane.getPlaneNo() + " completed twice");
+        }
+
+        boolean unblocked = false;
+        for (TurnaroundStage dependent : DEPENDENTS[stage.ordinal()]) {
+            unblocked |= pendingDependencies.decrementAndGet(dependent.ordinal()) == 0;
+        }
+        if (unblocked) {
+            stageMonitor.lock();
+            try {
+                stageMonitor.signalAll();
+            } finally {
+                stageMonitor.unlock();
+            }
+        }
+
+        if (remainingStages.decrementAndGet() == 0) { // Only one thread can take it to zero
+            airplane.turnaroundComplete(this);
+            completion.complete(this);
+        }
+    }
+
+    private long readyAt(TurnaroundStage stage) {
+        long ready = dockedAt;
+        for (TurnaroundStage dependency : stage.getDependencies()) {
+            ready = Math.max(ready, finishedAt.get(dependency.ordinal()));
+        }
+        return ready;
+    }
+
+    public String getCriticalPath() { // Walks back from the last stage to finish through what held each one up
+        TurnaroundStage last = STAGES[0];
+        for (TurnaroundStage stage : STAGES) {
+            if (finishedAt.get(stage.ordinal()) > finishedAt.get(last.ordinal())) {
+                last = stage;
+            }
+        }
+
+        StringBuilder path = new StringBuilder(last.name());
+        TurnaroundStage current = last;
+        while (current.getDependencies().length > 0 && readyAt(current) > dockedAt) {
+            TurnaroundStage latest = current.getDependencies()[0];
+            for (TurnaroundStage dependency : current.getDependencies()) {
+                if (finishedAt.get(dependency.ordinal()) > finishedAt.get(latest.ordinal())) {
+                    latest = dependency;
+                }
+            }
+            path.insert(0, latest.name() + " -> ");
+            current = latest;
+        }
+        return path.toString();
+    }
+}
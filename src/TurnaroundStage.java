@@ -0,0 +1,42 @@
+import java.util.EnumSet;
+
+public enum TurnaroundStage {
+    // What has to happen at the gate between docking and asking for takeoff. A stage can start once the plane has
+    // docked and every stage it depends on is done, everything else overlaps.
+    DISEMBARK("Disembarking"),
+    SERVICE("Servicing"),
+    REFUEL("Refuelling"),
+    BOARD("Boarding", DISEMBARK);
+
+    private final String label;
+    private final TurnaroundStage[] dependencies;
+
+    // CONSTRUCTOR
+    TurnaroundStage(String label, TurnaroundStage... dependencies) {
+        this.label = label;
+        this.dependencies = dependencies;
+    }
+
+    // GETTERS & SETTERS
+    public TurnaroundStage[] getDependencies() {
+        return dependencies;
+    }
+
+    // METHODS
+    public EnumSet<TurnaroundStage> getDependents() {
+        EnumSet<TurnaroundStage> dependents = EnumSet.noneOf(TurnaroundStage.class);
+        for (TurnaroundStage stage : values()) {
+            for (TurnaroundStage dependency : stage.dependencies) {
+                if (dependency == this) {
+                    dependents.add(stage);
+                }
+            }
+        }
+        return dependents;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,47 @@
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TurnaroundStatistics {
+    // Per-stage timings of every finished Turnaround, and how often each chain of stages was the critical path
+    private static final TurnaroundStage[] STAGES = TurnaroundStage.values();
+
+    private final LatencyHistogram[] waits = new LatencyHistogram[STAGES.length];
+    private final LatencyHistogram[] durations = new LatencyHistogram[STAGES.length];
+    private final LatencyHistogram totals = new LatencyHistogram();
+    private final Map<String, LongAdder> criticalPaths = new ConcurrentHashMap<>();
+
+    // CONSTRUCTOR
+    public TurnaroundStatistics() {
+        for (TurnaroundStage stage : STAGES) {
+            waits[stage.ordinal()] = new LatencyHistogram();
+            durations[stage.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    // METHODS
+    public void record(Turnaround turnaround) {
+        for (TurnaroundStage stage : STAGES) {
+            waits[stage.ordinal()].record(turnaround.getWaitTime(stage));
+            durations[stage.ordinal()].record(turnaround.getDuration(stage));
+        }
+        totals.record(turnaround.getTotalTime());
+        criticalPaths.computeIfAbsent(turnaround.getCriticalPath(), path -> new LongAdder()).increment();
+    }
+
+    public void print(PrintStream out) {
+        String name = Thread.currentThread().getName();
+        out.printf("[%s]: Turnarounds: %s\n", name, LatencyRecorder.describe(totals));
+        for (TurnaroundStage stage : STAGES) {
+            out.printf("[%s]: %s: waited avg %.2f ms, took avg %.2f ms (p99 %d ms)\n", name, stage,
+                    waits[stage.ordinal()].getMean(), durations[stage.ordinal()].getMean(),
+                    durations[stage.ordinal()].getPercentile(99));
+        }
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(criticalPaths).entrySet()) {
+            out.printf("[%s]: Critical path %s: %d turnarounds\n", name, entry.getKey(),
+                    entry.getValue().sum());
+        }
+    }
+}
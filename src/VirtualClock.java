@@ -0,0 +1,169 @@
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class VirtualClock extends SimClock {
+    // Discrete-event time: sleeping doesn't take real time. Once every actor is either sleeping or blocked in an
+    // ActorMonitor, the clock jumps straight to the earliest wake-up time and wakes those sleepers.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Sleeper> sleepers = new PriorityQueue<>();
+    private volatile long now = 0; // Only moved under the lock, read without it (every logged event reads it)
+    private long nextSequence = 0; // Keeps sleepers with the same wake-up time in FIFO order
+    private int busyActors = 1; // The thread that creates the clock counts as busy until it calls actorFinished()
+
+    // Time windows for an AirportNetwork: the clock stays short of the horizon until every airport's clock has
+    // got there, then the barrier moves all horizons on together. Long.MAX_VALUE and no barrier when on its own.
+    private long horizon = Long.MAX_VALUE;
+    private WindowBarrier barrier = null;
+    private boolean parked = false; // Reported to the barrier for the current window
+
+    private static class Sleeper implements Comparable<Sleeper> {
+        private final long wakeTime;
+        private final long sequence;
+        private final Condition wakeup;
+        private boolean woken = false;
+
+        Sleeper(long wakeTime, long sequence, Condition wakeup) {
+            this.wakeTime = wakeTime;
+            this.sequence = sequence;
+            this.wakeup = wakeup;
+        }
+
+        @Override
+        public int compareTo(Sleeper other) {
+            if (wakeTime != other.wakeTime) {
+                return Long.compare(wakeTime, other.wakeTime);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // GETTERS & SETTERS
+    public long getHorizon() {
+        lock.lock();
+        try {
+            return horizon;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setBarrier(WindowBarrier barrier, long horizon) { // Before any actor is started
+        lock.lock();
+        try {
+            this.barrier = barrier;
+            this.horizon = horizon;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isFinished() { // Every actor has finished, nothing can ever happen on this clock again
+        lock.lock();
+        try {
+            return busyActors == 0 && sleepers.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // METHODS
+    public void advanceHorizon(long horizon) { // Called by the barrier once every clock has reached the old one
+        lock.lock();
+        try {
+            this.horizon = horizon;
+            parked = false;
+            advanceIfIdle();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (millis <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Sleeper sleeper = new Sleeper(now + millis, nextSequence++, lock.newCondition());
+            sleepers.add(sleeper);
+            busyActors--;
+            advanceIfIdle();
+            try {
+                while (!sleeper.woken) {
+                    sleeper.wakeup.await();
+                }
+            } catch (InterruptedException e) {
+                if (!sleeper.woken) { // Woken by the interrupt instead of the clock
+                    sleepers.remove(sleeper);
+                    busyActors++;
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void actorStarted() {
+        lock.lock();
+        try {
+            busyActors++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void actorFinished() {
+        actorBlocked(); // Same bookkeeping, it just never comes back
+    }
+
+    @Override
+    public void actorBlocked() {
+        lock.lock();
+        try {
+            busyActors--;
+            advanceIfIdle();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void actorsResumed(int count) {
+        lock.lock();
+        try {
+            busyActors += count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void advanceIfIdle() { // Caller holds lock
+        if (busyActors > 0) {
+            return;
+        }
+        if (sleepers.isEmpty() || sleepers.peek().wakeTime >= horizon) {
+            if (barrier != null && !parked) { // Nothing left before the horizon, only other airports can move it
+                parked = true;
+                barrier.arrive();
+            }
+            return;
+        }
+        now = Math.max(now, sleepers.peek().wakeTime);
+        while (!sleepers.isEmpty() && sleepers.peek().wakeTime <= now) { // Everyone due at this instant
+            Sleeper sleeper = sleepers.poll();
+            sleeper.woken = true;
+            busyActors++;
+            sleeper.wakeup.signal();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+public enum WakeCategory {
+    // ICAO wake turbulence categories, from the cabin size since that's all a flight tells us. A plane following
+    // a bigger one onto the same runway has to wait for the vortices to clear. Steps are the extra separation
+    // over the 3 nm minimum (heavy -> light is 6 nm), RunwayTimeline turns them into ms.
+    LIGHT, MEDIUM, HEAVY;
+
+    static final int LIGHT_SEATS = 19; // Commuter planes and smaller
+    static final int MAX_STEPS = 3;
+    private static final int[][] STEPS = { // [leader][follower]
+            { 0, 0, 0 }, // Light
+            { 2, 0, 0 }, // Medium
+            { 3, 2, 1 }, // Heavy
+    };
+
+    // METHODS
+    public int separationSteps(WakeCategory follower) {
+        return STEPS[ordinal()][follower.ordinal()];
+    }
+
+    public static WakeCategory of(int disembarkingPassengers, int boardingPassengers) { // -1 counts are medium
+        int seats = Math.max(disembarkingPassengers, boardingPassengers);
+        if (seats > CabinBoarding.WIDE_BODY_SEATS) {
+            return HEAVY;
+        }
+        return (seats >= 0 && seats <= LIGHT_SEATS) ? LIGHT : MEDIUM;
+    }
+}
@@ -0,0 +1,49 @@
+public class WeightedFairPolicy implements SchedulingPolicy {
+    // Weighted fair queuing between the landing and takeoff lanes. Each grant charges its lane the runway time
+    // it takes divided by the lane's weight, and the lane that has been charged less goes next. With 1:1 both
+    // lanes get the same runway time, which is two takeoffs per landing when both are backed up. A lane that runs
+    // empty is caught up with the other one, so it can't save up credit and then burst.
+    private static final int LANDING = 0;
+    private static final int TAKEOFF = 1;
+
+    private final int[] weights = new int[2];
+    private final long[] virtualTime = new long[2]; // Runway ms charged so far, scaled by the lane's weight
+
+    // CONSTRUCTOR
+    public WeightedFairPolicy(int landingWeight, int takeoffWeight) {
+        if (landingWeight <= 0 || takeoffWeight <= 0) {
+            throw new IllegalArgumentException("Weights must be positive: " + landingWeight + ":" + takeoffWeight);
+        }
+        weights[LANDING] = landingWeight;
+        weights[TAKEOFF] = takeoffWeight;
+    }
+
+    // METHODS
+    @Override
+    public Airplane select(RunwayRequestQueue queue) {
+        Airplane landing = queue.peekLanding();
+        Airplane takeoff = queue.peekTakeoff();
+        if (landing == null || takeoff == null) {
+            int idle = landing == null ? LANDING : TAKEOFF;
+            virtualTime[idle] = Math.max(virtualTime[idle], virtualTime[1 - idle]);
+            return landing != null ? landing : takeoff;
+        }
+        if (virtualTime[LANDING] != virtualTime[TAKEOFF]) {
+            return virtualTime[LANDING] < virtualTime[TAKEOFF] ? landing : takeoff;
+        }
+        return queue.peekFirstCome();
+    }
+
+    @Override
+    public void granted(Airplane airplane) { // Emergencies are charged to the landing lane
+        boolean landing = airplane.getPhase() != FlightPhase.TAKEOFF;
+        int lane = landing ? LANDING : TAKEOFF;
+        long runwayMs = landing ? GatePlanner.LANDING_TO_GATE_MS : GatePlanner.TAKEOFF_MS;
+        virtualTime[lane] += runwayMs * 1000 / weights[lane];
+    }
+
+    @Override
+    public String toString() {
+        return "weighted-fair:" + weights[LANDING] + ":" + weights[TAKEOFF];
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.concurrent.Semaphore;
+
+public class WindowBarrier {
+    // Conservative time windows across the airports of a network. A flight takes at least one window to get from
+    // one airport to the next, so nothing an airport does inside a window can affect another airport before the
+    // next one. Each airport's VirtualClock runs freely up to the horizon, parks there, and once all of them have
+    // the horizon moves on by a window. Clocks report with a permit and never take each other's locks.
+    private final VirtualClock[] clocks;
+    private final long windowMs;
+    private final Semaphore arrivals = new Semaphore(0);
+    private volatile boolean stopped = false;
+    private long horizon;
+    private long windows = 0; // Only the barrier thread writes
+    private Thread thread;
+
+    // GETTERS & SETTERS
+    public long getWindows() {
+        return windows;
+    }
+
+    // CONSTRUCTOR
+    public WindowBarrier(VirtualClock[] clocks, long windowMs) {
+        this.clocks = clocks;
+        this.windowMs = windowMs;
+        this.horizon = windowMs;
+        for (VirtualClock clock : clocks) {
+            clock.setBarrier(this, horizon);
+        }
+    }
+
+    // METHODS
+    void arrive() { // A clock has nothing left before the horizon, called under that clock's lock
+        arrivals.release();
+    }
+
+    public void start() {
+        thread = new Thread(this::run, "Window Barrier");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        stopped = true;
+        arrivals.release(clocks.length);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean allFinished() {
+        for (VirtualClock clock : clocks) {
+            if (!clock.isFinished()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                arrivals.acquire(clocks.length);
+                if (stopped || allFinished()) { // The airports are only printing their statistics now
+                    return;
+                }
+                horizon += windowMs;
+                windows++;
+                for (VirtualClock clock : clocks) {
+                    clock.advanceHorizon(horizon);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}